@@ -0,0 +1,16 @@
+package fr.umontpellier.iut.graphes;
+
+/**
+ * Algorithme utilisé pour calculer la distance entre deux sommets.
+ * <ul>
+ *     <li>{@code DIJKSTRA} : recherche sans a priori, valable pour tout graphe ;</li>
+ *     <li>{@code A_ETOILE} : recherche guidée par la distance hexagonale sur la grille multipliée par le plus petit
+ *     surcoût du graphe. Elle n'est utilisée que sur les graphes dont les numéros de sommets sont des indices de tuiles
+ *     d'une grille hexagonale (de largeur {@code Graphe.getLargeurGrille()}) et dont les arêtes relient des tuiles
+ *     voisines (voir {@link GrapheCSR#estSurPlateau()}) ; sur les autres graphes, la distance est calculée avec
+ *     {@code DIJKSTRA}.</li>
+ * </ul>
+ */
+public enum AlgorithmeDistance {
+    DIJKSTRA, A_ETOILE;
+}
@@ -0,0 +1,199 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.*;
+
+/**
+ * Arbre des coupes (Gomory–Hu) d'un graphe pour un ensemble de sommets terminaux, construit par l'algorithme de
+ * Gusfield : k terminaux demandent k-1 calculs de flot maximum (voir {@link ReseauFlot}), tous sur le même réseau.
+ * Une fois construit, l'arbre n'est plus modifié : une coupe qui doit être recalculée l'est sur un réseau propre à
+ * l'appel, si bien que les requêtes peuvent être faites depuis plusieurs fils à la fois.
+ * Dans l'arbre, le poids de l'arête entre un terminal et son parent est le nombre minimum d'arêtes du graphe à
+ * retirer pour les séparer ; pour deux terminaux quelconques, ce nombre est le plus petit poids rencontré sur le
+ * chemin qui les relie dans l'arbre (temps O(k) par requête).
+ * Les coupes portent sur les arêtes : la taille minimum d'un ensemble de sommets séparateur ne se représente pas par
+ * un arbre en général (pour un seul couple, voir {@link CoupeMinimaleSommets}).
+ */
+public class ArbreCoupes {
+    private final GrapheCSR g;
+    /**
+     * Positions des terminaux dans le graphe
+     */
+    private final int[] terminaux;
+    /**
+     * Rang de chaque terminal, indexé par numéro de sommet
+     */
+    private final Map<Integer, Integer> rangs = new HashMap<>();
+    /**
+     * Parent de chaque terminal dans l'arbre (par rang ; -1 pour la racine, de rang 0)
+     */
+    private final int[] parents;
+    private final int[] poids;
+    private final int[] profondeurs;
+    /**
+     * Côté du terminal, parmi les positions du graphe, de la coupe minimum calculée avec son parent
+     */
+    private final BitSet[] cotes;
+
+    /**
+     * Construit l'arbre des coupes pour tous les sommets du graphe
+     */
+    public ArbreCoupes(GrapheCSR g) {
+        this(g, numerosDe(g));
+    }
+
+    /**
+     * Construit l'arbre des coupes pour les sommets de numéros {@code numerosTerminaux} (ceux qui ne sont pas dans
+     * le graphe sont ignorés)
+     */
+    public ArbreCoupes(GrapheCSR g, int[] numerosTerminaux) {
+        this.g = g;
+        int[] positions = new int[numerosTerminaux.length];
+        int k = 0;
+        for (int numero : numerosTerminaux) {
+            int p = g.getPosition(numero);
+            if (p >= 0 && !rangs.containsKey(numero)) {
+                rangs.put(numero, k);
+                positions[k++] = p;
+            }
+        }
+        terminaux = Arrays.copyOf(positions, k);
+        parents = new int[k];
+        poids = new int[k];
+        profondeurs = new int[k];
+        cotes = new BitSet[k];
+        construire();
+    }
+
+    /**
+     * @return le réseau de flot du graphe, chaque arête ayant la capacité 1
+     */
+    private ReseauFlot creerReseau() {
+        ReseauFlot reseau = new ReseauFlot(g.getNbSommets());
+        for (int p = 0; p < g.getNbSommets(); p++) {
+            for (int a = g.debutVoisins(p); a < g.finVoisins(p); a++) {
+                if (g.cible(a) > p) {
+                    reseau.ajouterArete(p, g.cible(a), 1);
+                }
+            }
+        }
+        return reseau;
+    }
+
+    private static int[] numerosDe(GrapheCSR g) {
+        int[] numeros = new int[g.getNbSommets()];
+        for (int p = 0; p < numeros.length; p++) {
+            numeros[p] = g.getIndice(p);
+        }
+        return numeros;
+    }
+
+    private void construire() {
+        int k = terminaux.length;
+        if (k == 0) {
+            return;
+        }
+        parents[0] = -1;
+        for (int i = 1; i < k; i++) {
+            parents[i] = 0;
+        }
+        ReseauFlot reseau = creerReseau();
+        for (int i = 1; i < k; i++) {
+            reseau.reinitialiser();
+            poids[i] = reseau.flotMaximum(terminaux[i], terminaux[parents[i]]);
+            boolean[] cote = reseau.getCoteSource(terminaux[i]);
+            cotes[i] = versBitSet(cote);
+            // les terminaux suivants qui sont du côté de i sont rattachés à i
+            for (int j = i + 1; j < k; j++) {
+                if (parents[j] == parents[i] && cote[terminaux[j]]) {
+                    parents[j] = i;
+                }
+            }
+            profondeurs[i] = profondeurs[parents[i]] + 1;
+        }
+    }
+
+    private static BitSet versBitSet(boolean[] cote) {
+        BitSet res = new BitSet(cote.length);
+        for (int p = 0; p < cote.length; p++) {
+            if (cote[p]) {
+                res.set(p);
+            }
+        }
+        return res;
+    }
+
+    public int getNbTerminaux() {
+        return terminaux.length;
+    }
+
+    private int getRang(int numero) {
+        Integer rang = rangs.get(numero);
+        if (rang == null) {
+            throw new IllegalArgumentException("Le sommet " + numero + " n'est pas un terminal");
+        }
+        return rang;
+    }
+
+    /**
+     * @return le rang de l'arête de l'arbre de plus petit poids sur le chemin entre les terminaux de rangs a et b
+     * (chaque arête de l'arbre est désignée par le rang de son extrémité fille)
+     */
+    private int getAreteMin(int a, int b) {
+        int min = -1;
+        while (a != b) {
+            if (profondeurs[a] < profondeurs[b]) {
+                int tmp = a;
+                a = b;
+                b = tmp;
+            }
+            if (min < 0 || poids[a] < poids[min]) {
+                min = a;
+            }
+            a = parents[a];
+        }
+        return min;
+    }
+
+    /**
+     * @return le nombre minimum d'arêtes à retirer pour séparer les terminaux de numéros {@code u} et {@code v}
+     * (0 s'ils ne sont pas reliés)
+     */
+    public int getTailleCoupe(int u, int v) {
+        return poids[getAreteMinEntre(u, v)];
+    }
+
+    private int getAreteMinEntre(int u, int v) {
+        int a = getRang(u);
+        int b = getRang(v);
+        if (a == b) {
+            throw new IllegalArgumentException("Un sommet ne peut pas être séparé de lui-même");
+        }
+        return getAreteMin(a, b);
+    }
+
+    /**
+     * @return un ensemble minimum d'arêtes séparant les terminaux de numéros {@code u} et {@code v}, chaque arête
+     * étant un couple de numéros de sommets. On réutilise la coupe mémorisée pendant la construction si elle sépare
+     * u et v, sinon on la recalcule par un flot maximum.
+     */
+    public List<int[]> getCoupe(int u, int v) {
+        int e = getAreteMinEntre(u, v);
+        int pu = g.getPosition(u);
+        int pv = g.getPosition(v);
+        BitSet cote = cotes[e];
+        if (cote.get(pu) == cote.get(pv)) {
+            ReseauFlot reseau = creerReseau();
+            reseau.flotMaximum(pu, pv);
+            cote = versBitSet(reseau.getCoteSource(pu));
+        }
+        List<int[]> coupe = new ArrayList<>();
+        for (int p = cote.nextSetBit(0); p >= 0; p = cote.nextSetBit(p + 1)) {
+            for (int a = g.debutVoisins(p); a < g.finVoisins(p); a++) {
+                if (!cote.get(g.cible(a))) {
+                    coupe.add(new int[]{g.getIndice(p), g.getIndice(g.cible(a))});
+                }
+            }
+        }
+        return coupe;
+    }
+}
@@ -0,0 +1,113 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.*;
+
+/**
+ * Composantes connexes d'un graphe qui ne fait que grossir (ajout de sommets et d'arêtes, jamais de suppression).
+ * Chaque élément reçoit un numéro interne dans une structure union-find ({@link EnsemblesDisjoints}) :
+ * un ajout coûte un temps quasi constant, et le nombre de composantes, la taille d'une composante ou le fait que deux
+ * éléments soient reliés se lisent sans parcours.
+ * Sert par exemple à suivre le réseau de rails d'un joueur au fur et à mesure de sa construction.
+ *
+ * @param <E> le type des éléments (comparés par {@code equals})
+ */
+public class ConnexiteIncrementale<E> {
+    private final Map<E, Integer> numeros = new HashMap<>();
+    /**
+     * Éléments rangés par numéro interne
+     */
+    private final List<E> elements = new ArrayList<>();
+    private final EnsemblesDisjoints classes = new EnsemblesDisjoints(0);
+
+    /**
+     * Ajoute {@code e} comme nouvelle composante (s'il n'est pas déjà présent)
+     *
+     * @return true si l'élément a été ajouté, false s'il était déjà présent
+     */
+    public boolean ajouter(E e) {
+        if (numeros.containsKey(e)) {
+            return false;
+        }
+        numeros.put(e, classes.ajouterElement());
+        elements.add(e);
+        return true;
+    }
+
+    /**
+     * Ajoute l'arête {e1, e2} (les éléments absents sont ajoutés)
+     *
+     * @return true si l'arête a réuni deux composantes distinctes
+     */
+    public boolean relier(E e1, E e2) {
+        ajouter(e1);
+        ajouter(e2);
+        return classes.unir(numeros.get(e1), numeros.get(e2));
+    }
+
+    public boolean contient(E e) {
+        return numeros.containsKey(e);
+    }
+
+    public int getNbElements() {
+        return elements.size();
+    }
+
+    /**
+     * @return le nombre de composantes connexes
+     */
+    public int getNbClasses() {
+        return classes.getNbClasses();
+    }
+
+    /**
+     * @return true si et seulement si tous les éléments sont dans une même composante (vrai s'il n'y en a aucun)
+     */
+    public boolean estConnexe() {
+        return classes.getNbClasses() <= 1;
+    }
+
+    /**
+     * @return true si et seulement si {@code e1} et {@code e2} sont présents et dans la même composante
+     */
+    public boolean sontRelies(E e1, E e2) {
+        Integer x = numeros.get(e1);
+        Integer y = numeros.get(e2);
+        return x != null && y != null && classes.memeClasse(x, y);
+    }
+
+    /**
+     * @return le nombre d'éléments de la composante de {@code e} (0 si {@code e} est absent)
+     */
+    public int getTailleClasse(E e) {
+        Integer x = numeros.get(e);
+        return x == null ? 0 : classes.getTaille(x);
+    }
+
+    /**
+     * @return la composante de {@code e} (vide si {@code e} est absent) ; temps linéaire en le nombre d'éléments
+     */
+    public Set<E> getClasse(E e) {
+        Set<E> res = new HashSet<>();
+        Integer x = numeros.get(e);
+        if (x != null) {
+            int representant = classes.trouver(x);
+            for (int k = 0; k < elements.size(); k++) {
+                if (classes.trouver(k) == representant) {
+                    res.add(elements.get(k));
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * @return l'ensemble des composantes ; temps linéaire en le nombre d'éléments
+     */
+    public Set<Set<E>> getClasses() {
+        Map<Integer, Set<E>> parRepresentant = new HashMap<>();
+        for (int k = 0; k < elements.size(); k++) {
+            parRepresentant.computeIfAbsent(classes.trouver(k), r -> new HashSet<>()).add(elements.get(k));
+        }
+        return new HashSet<>(parRepresentant.values());
+    }
+}
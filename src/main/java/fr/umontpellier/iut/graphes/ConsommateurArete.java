@@ -0,0 +1,9 @@
+package fr.umontpellier.iut.graphes;
+
+/**
+ * Action appliquée à une arête désignée par les numéros de ses deux extrémités.
+ */
+@FunctionalInterface
+public interface ConsommateurArete {
+    void accepter(int s, int t);
+}
@@ -0,0 +1,139 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.*;
+
+/**
+ * Graphe quotient obtenu en contractant, en une seule passe, plusieurs ensembles de sommets d'un graphe : chaque
+ * ensemble est remplacé par un seul sommet, les autres sommets sont recopiés, et deux sommets du quotient sont
+ * voisins si et seulement si deux sommets qu'ils représentent sont voisins dans le graphe de départ.
+ * <p>
+ * Les sommets du graphe sont numérotés par leur position, et les ensembles sont réunis dans un
+ * {@link EnsemblesDisjoints} : le représentant d'un sommet donne sa classe, donc son sommet dans le quotient. Les
+ * agrégats de chaque classe (comme pour {@link Graphe#fusionnerEnsembleSommets(Graphe, Set)}) puis les arêtes sont
+ * ensuite calculés en parcourant une fois les sommets et leurs voisins, soit un temps quasi linéaire en
+ * O(n + m + taille des ensembles). Le graphe de départ n'est pas modifié.
+ * <p>
+ * Les ensembles sont supposés disjoints ; des ensembles qui se chevauchent sont contractés en un seul sommet.
+ */
+public class Contraction {
+    private final Graphe quotient;
+    /**
+     * Sommets du graphe de départ, suivis des sommets des ensembles qui n'y sont pas, par position
+     */
+    private final List<Sommet> sommets;
+    /**
+     * Position de chaque sommet de {@code sommets}, par numéro
+     */
+    private final Map<Integer, Integer> positions;
+    private final EnsemblesDisjoints classes;
+    /**
+     * Sommet du quotient associé à chaque représentant (null pour les autres positions)
+     */
+    private final Sommet[] images;
+
+    /**
+     * @param g         le graphe à contracter
+     * @param ensembles des ensembles de sommets de {@code g}, deux à deux disjoints
+     */
+    public Contraction(Graphe g, Collection<? extends Set<Sommet>> ensembles) {
+        sommets = new ArrayList<>(g.getSommets());
+        positions = new HashMap<>();
+        for (int p = 0; p < sommets.size(); p++) {
+            positions.put(sommets.get(p).getIndice(), p);
+        }
+        classes = new EnsemblesDisjoints(sommets.size());
+        for (Set<Sommet> ensemble : ensembles) {
+            int premier = -1;
+            for (Sommet s : ensemble) {
+                int p = getPositionOuAjouter(s);
+                if (premier < 0) {
+                    premier = p;
+                } else {
+                    classes.unir(premier, p);
+                }
+            }
+        }
+
+        int n = sommets.size();
+        int[] indicesMin = new int[n];
+        int[] surcouts = new int[n];
+        int[] nbPointsVictoire = new int[n];
+        List<Set<Integer>> joueurs = new ArrayList<>(Collections.nCopies(n, null));
+        Arrays.fill(indicesMin, Integer.MAX_VALUE);
+        for (int p = 0; p < n; p++) {
+            Sommet s = sommets.get(p);
+            int r = classes.trouver(p);
+            indicesMin[r] = Math.min(indicesMin[r], s.getIndice());
+            surcouts[r] += s.getSurcout();
+            nbPointsVictoire[r] += s.getNbPointsVictoire();
+            if (joueurs.get(r) == null) {
+                joueurs.set(r, new HashSet<>());
+            }
+            joueurs.get(r).addAll(s.getJoueurs());
+        }
+
+        quotient = new Graphe();
+        images = new Sommet[n];
+        Sommet.SommetBuilder builder = new Sommet.SommetBuilder();
+        for (int r = 0; r < n; r++) {
+            if (joueurs.get(r) != null) {
+                images[r] = builder.setIndice(indicesMin[r]).setSurcout(surcouts[r])
+                        .setNbPointsVictoire(nbPointsVictoire[r]).setJoueurs(joueurs.get(r)).createSommet();
+                quotient.ajouterSommet(images[r]);
+            }
+        }
+        for (int p = 0; p < n; p++) {
+            Sommet image = images[classes.trouver(p)];
+            for (Sommet voisin : sommets.get(p).getVoisins()) {
+                Integer q = positions.get(voisin.getIndice());
+                if (q != null) {
+                    Sommet imageVoisin = images[classes.trouver(q)];
+                    if (imageVoisin != image) {
+                        image.ajouterVoisin(imageVoisin);
+                        imageVoisin.ajouterVoisin(image);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return la position de {@code s}, après l'avoir ajouté comme singleton s'il n'est pas dans le graphe
+     */
+    private int getPositionOuAjouter(Sommet s) {
+        Integer p = positions.get(s.getIndice());
+        if (p == null) {
+            p = classes.ajouterElement();
+            sommets.add(s);
+            positions.put(s.getIndice(), p);
+        }
+        return p;
+    }
+
+    /**
+     * @return le graphe quotient
+     */
+    public Graphe getQuotient() {
+        return quotient;
+    }
+
+    /**
+     * @return le sommet du quotient qui représente le sommet de numéro {@code numero} du graphe de départ
+     * (null s'il n'y est pas)
+     */
+    public Sommet getImage(int numero) {
+        Integer p = positions.get(numero);
+        return p == null ? null : images[classes.trouver(p)];
+    }
+
+    /**
+     * @return pour chaque sommet du graphe de départ (par numéro), le numéro du sommet du quotient qui le représente
+     */
+    public Map<Integer, Integer> getEtiquettes() {
+        Map<Integer, Integer> etiquettes = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entree : positions.entrySet()) {
+            etiquettes.put(entree.getKey(), images[classes.trouver(entree.getValue())].getIndice());
+        }
+        return etiquettes;
+    }
+}
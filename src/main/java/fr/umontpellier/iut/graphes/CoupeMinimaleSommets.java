@@ -0,0 +1,72 @@
+package fr.umontpellier.iut.graphes;
+
+/**
+ * Plus petit ensemble de sommets séparant deux sommets non voisins s et t (s et t exclus), calculé par flot maximum.
+ * Chaque sommet p est découpé en un nœud d'entrée et un nœud de sortie reliés par un arc de capacité 1 (capacité
+ * infinie pour s et t), et chaque arête {p, q} devient deux arcs de capacité infinie sortie(p) -> entrée(q) et
+ * sortie(q) -> entrée(p). D'après le théorème de Menger, le flot maximum de sortie(s) à entrée(t) est le nombre
+ * maximum de chemins de s à t sans sommet intérieur commun, égal à la taille d'un plus petit ensemble séparateur ;
+ * les sommets dont seul le nœud d'entrée est du côté source d'une coupe minimum forment un tel ensemble.
+ */
+public class CoupeMinimaleSommets {
+    private final int taille;
+    private final int[] coupe;
+
+    /**
+     * @param g un graphe
+     * @param s position de la source
+     * @param t position du puits (différente de {@code s} et non voisine de {@code s})
+     */
+    public CoupeMinimaleSommets(GrapheCSR g, int s, int t) {
+        if (s == t || g.estVoisin(s, t)) {
+            throw new IllegalArgumentException("Aucun ensemble de sommets ne sépare deux sommets égaux ou voisins");
+        }
+        ReseauFlot reseau = construireReseau(g, s, t);
+        taille = reseau.flotMaximum(sortie(s), entree(t));
+        boolean[] coteSource = reseau.getCoteSource(sortie(s));
+        coupe = new int[taille];
+        int nb = 0;
+        for (int p = 0; p < g.getNbSommets(); p++) {
+            if (coteSource[entree(p)] && !coteSource[sortie(p)]) {
+                coupe[nb++] = g.getIndice(p);
+            }
+        }
+    }
+
+    /**
+     * @return le réseau obtenu en découpant chaque sommet de {@code g} en un nœud d'entrée et un nœud de sortie
+     */
+    static ReseauFlot construireReseau(GrapheCSR g, int s, int t) {
+        int n = g.getNbSommets();
+        ReseauFlot reseau = new ReseauFlot(2 * n);
+        for (int p = 0; p < n; p++) {
+            reseau.ajouterArc(entree(p), sortie(p), p == s || p == t ? ReseauFlot.INFINI : 1);
+            for (int k = g.debutVoisins(p); k < g.finVoisins(p); k++) {
+                reseau.ajouterArc(sortie(p), entree(g.cible(k)), ReseauFlot.INFINI);
+            }
+        }
+        return reseau;
+    }
+
+    static int entree(int p) {
+        return 2 * p;
+    }
+
+    static int sortie(int p) {
+        return 2 * p + 1;
+    }
+
+    /**
+     * @return la taille d'un plus petit ensemble séparateur (0 si s et t ne sont pas reliés)
+     */
+    public int getTaille() {
+        return taille;
+    }
+
+    /**
+     * @return les numéros des sommets d'un plus petit ensemble séparateur
+     */
+    public int[] getCoupe() {
+        return coupe.clone();
+    }
+}
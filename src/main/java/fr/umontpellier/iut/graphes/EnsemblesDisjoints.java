@@ -0,0 +1,114 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+
+/**
+ * Structure union-find sur les entiers 0..n-1, avec compression de chemins et union par rang :
+ * chaque opération s'exécute en temps quasi constant (amorti).
+ */
+public class EnsemblesDisjoints {
+    private int[] parent;
+    private byte[] rang;
+    private int[] tailles;
+    private int nbElements;
+    private int nbClasses;
+
+    /**
+     * Construit n singletons {0}, {1}, ..., {n-1}
+     */
+    public EnsemblesDisjoints(int n) {
+        parent = new int[n];
+        rang = new byte[n];
+        tailles = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            tailles[i] = 1;
+        }
+        nbElements = n;
+        nbClasses = n;
+    }
+
+    /**
+     * @return le nombre d'éléments
+     */
+    public int getNbElements() {
+        return nbElements;
+    }
+
+    /**
+     * Ajoute un nouveau singleton (les tableaux sont agrandis par doublement : temps constant amorti)
+     *
+     * @return l'élément ajouté (égal au nombre d'éléments avant l'ajout)
+     */
+    public int ajouterElement() {
+        int x = nbElements;
+        if (x == parent.length) {
+            int capacite = Math.max(8, 2 * x);
+            parent = Arrays.copyOf(parent, capacite);
+            rang = Arrays.copyOf(rang, capacite);
+            tailles = Arrays.copyOf(tailles, capacite);
+        }
+        nbElements++;
+        parent[x] = x;
+        tailles[x] = 1;
+        nbClasses++;
+        return x;
+    }
+
+    /**
+     * @return le représentant de la classe de {@code x}
+     */
+    public int trouver(int x) {
+        int racine = x;
+        while (parent[racine] != racine) {
+            racine = parent[racine];
+        }
+        // compression du chemin
+        while (parent[x] != racine) {
+            int suivant = parent[x];
+            parent[x] = racine;
+            x = suivant;
+        }
+        return racine;
+    }
+
+    /**
+     * Réunit les classes de {@code x} et {@code y}
+     *
+     * @return true si les deux classes étaient distinctes, false si {@code x} et {@code y} étaient déjà dans la même classe
+     */
+    public boolean unir(int x, int y) {
+        int rx = trouver(x);
+        int ry = trouver(y);
+        if (rx == ry) {
+            return false;
+        }
+        if (rang[rx] < rang[ry]) {
+            int tmp = rx;
+            rx = ry;
+            ry = tmp;
+        }
+        parent[ry] = rx;
+        tailles[rx] += tailles[ry];
+        if (rang[rx] == rang[ry]) {
+            rang[rx]++;
+        }
+        nbClasses--;
+        return true;
+    }
+
+    public boolean memeClasse(int x, int y) {
+        return trouver(x) == trouver(y);
+    }
+
+    /**
+     * @return le nombre d'éléments de la classe de {@code x}
+     */
+    public int getTaille(int x) {
+        return tailles[trouver(x)];
+    }
+
+    public int getNbClasses() {
+        return nbClasses;
+    }
+}
@@ -0,0 +1,122 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Étiquetage des classes de connexité d'un {@link GrapheCSR} : chaque position reçoit le numéro (0..k-1) de sa
+ * classe, les classes étant numérotées dans l'ordre de leur plus petit sommet.
+ * <ul>
+ *     <li>en mode séquentiel, par des parcours en largeur avec une file dans un tableau d'entiers (pas de
+ *     récursion, donc pas de limite sur la longueur des chaînes) ;</li>
+ *     <li>en mode parallèle, par une structure union-find concurrente : les arêtes sont réparties en blocs traités
+ *     par le pool fork-join commun, chaque union accrochant par compare-and-set la racine de plus grand indice à
+ *     celle de plus petit indice (les liens vont toujours vers un indice plus petit, il ne peut donc pas se former
+ *     de cycle), et les recherches de racine raccourcissent les chemins au passage.</li>
+ * </ul>
+ */
+public class EtiquetageConnexite {
+    /**
+     * Nombre de sommets à partir duquel {@link #etiqueter(GrapheCSR)} passe en mode parallèle
+     */
+    public static final int SEUIL_PARALLELE = 1 << 17;
+    /**
+     * Nombre de sommets traités par tâche en mode parallèle
+     */
+    private static final int TAILLE_BLOC = 1 << 12;
+
+    private EtiquetageConnexite() {
+    }
+
+    /**
+     * @return les étiquettes de classe de connexité des positions de {@code g}, calculées en mode parallèle si le
+     * graphe a au moins {@code SEUIL_PARALLELE} sommets
+     */
+    public static int[] etiqueter(GrapheCSR g) {
+        return g.getNbSommets() >= SEUIL_PARALLELE ? etiqueterParallele(g) : etiqueterSequentiel(g);
+    }
+
+    public static int[] etiqueterSequentiel(GrapheCSR g) {
+        int n = g.getNbSommets();
+        int[] etiquettes = new int[n];
+        Arrays.fill(etiquettes, -1);
+        int[] file = new int[n];
+        int nbClasses = 0;
+        for (int p = 0; p < n; p++) {
+            if (etiquettes[p] == -1) {
+                int tete = 0;
+                int queue = 0;
+                file[queue++] = p;
+                etiquettes[p] = nbClasses;
+                while (tete < queue) {
+                    int u = file[tete++];
+                    for (int k = g.debutVoisins(u); k < g.finVoisins(u); k++) {
+                        int v = g.cible(k);
+                        if (etiquettes[v] == -1) {
+                            etiquettes[v] = nbClasses;
+                            file[queue++] = v;
+                        }
+                    }
+                }
+                nbClasses++;
+            }
+        }
+        return etiquettes;
+    }
+
+    public static int[] etiqueterParallele(GrapheCSR g) {
+        int n = g.getNbSommets();
+        AtomicIntegerArray parents = new AtomicIntegerArray(n);
+        IntStream.range(0, n).parallel().forEach(p -> parents.set(p, p));
+        int nbBlocs = (n + TAILLE_BLOC - 1) / TAILLE_BLOC;
+        IntStream.range(0, nbBlocs).parallel().forEach(b -> {
+            int fin = Math.min(n, (b + 1) * TAILLE_BLOC);
+            for (int p = b * TAILLE_BLOC; p < fin; p++) {
+                for (int k = g.debutVoisins(p); k < g.finVoisins(p); k++) {
+                    int q = g.cible(k);
+                    if (q > p) {
+                        unir(parents, p, q);
+                    }
+                }
+            }
+        });
+        // une fois toutes les unions faites, la racine d'une classe est son plus petit sommet : en parcourant les
+        // positions dans l'ordre, chaque racine est rencontrée avant les autres sommets de sa classe
+        int[] etiquettes = new int[n];
+        int nbClasses = 0;
+        for (int p = 0; p < n; p++) {
+            int r = trouver(parents, p);
+            etiquettes[p] = r == p ? nbClasses++ : etiquettes[r];
+        }
+        return etiquettes;
+    }
+
+    private static int trouver(AtomicIntegerArray parents, int x) {
+        while (true) {
+            int p = parents.get(x);
+            if (p == x) {
+                return x;
+            }
+            int gp = parents.get(p);
+            // division de chemin : si un autre fil a changé le parent de x entre-temps, l'échec est sans conséquence
+            parents.compareAndSet(x, p, gp);
+            x = gp;
+        }
+    }
+
+    private static void unir(AtomicIntegerArray parents, int a, int b) {
+        while (true) {
+            int ra = trouver(parents, a);
+            int rb = trouver(parents, b);
+            if (ra == rb) {
+                return;
+            }
+            int grande = Math.max(ra, rb);
+            int petite = Math.min(ra, rb);
+            if (parents.compareAndSet(grande, grande, petite)) {
+                return;
+            }
+        }
+    }
+}
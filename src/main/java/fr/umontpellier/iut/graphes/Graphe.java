@@ -1,6 +1,10 @@
 package fr.umontpellier.iut.graphes;
 
+import fr.umontpellier.iut.trains.plateau.Plateau;
+
 import java.util.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
 
 /**
  * Graphe simple non-orienté pondéré représentant le plateau du jeu.
@@ -10,24 +14,94 @@ import java.util.*;
  */
 
 public class Graphe {
+    /**
+     * Délai (en millisecondes) accordé à la recherche exacte de {@link #getColorationPropreOptimale()}
+     */
+    public static final long DELAI_COLORATION_OPTIMALE = 1000;
+    /**
+     * Index des sommets du graphe par numéro, pour un accès en temps constant dans {@link #getSommet(int)}.
+     */
+    private final Map<Integer, Sommet> index;
+    /**
+     * Ensemble des sommets du graphe : vue sur {@code index}, toute modification de l'ensemble met l'index à jour.
+     */
     private final Set<Sommet> sommets;
-    private boolean check = false;
-    private int minEnsCritique = Integer.MAX_VALUE;
+    /**
+     * Graphe dont celui-ci est une vue en lecture seule (voir {@link #vueLectureSeule()}), null sinon
+     */
+    private final Graphe source;
+    /**
+     * Compteur des modifications des ensembles de voisins des sommets du graphe. Chaque sommet du graphe l'incrémente
+     * quand ses voisins changent, même si la modification ne passe pas par le graphe.
+     */
+    private final Compteur modifications = new Compteur();
+    /**
+     * Nombre d'arêtes mémorisé, valide tant que sa version est égale à {@code modifications} ; null s'il doit être
+     * recalculé.
+     */
+    private volatile Memoire<Integer> nbAretes;
+    /**
+     * Matrice d'adjacence mémorisée pour les petits graphes (voir {@link #getMatrice()}), valide dans les mêmes
+     * conditions que {@code nbAretes}
+     */
+    private volatile Memoire<GrapheBitMatrice> matrice;
+    /**
+     * Représentation compacte mémorisée (voir {@link #getGrapheCSR()}), valide dans les mêmes conditions que
+     * {@code nbAretes}
+     */
+    private volatile Memoire<GrapheCSR> csr;
+    /**
+     * Nombre de tuiles des lignes paires de la grille hexagonale dont les numéros des sommets sont des indices de
+     * tuiles (voir {@link GrapheCSR#estSurPlateau()})
+     */
+    private int largeurGrille = Plateau.LARGEUR;
 
     public Graphe(Set<Sommet> sommets) {
-        this.sommets = sommets;
+        this(0);
+        this.sommets.addAll(sommets);
     }
 
     /**
      * Construit un graphe à n sommets 0..n-1 sans arêtes
      */
     public Graphe(int n) {
-        sommets = new HashSet<>();
+        index = new HashMap<>();
+        sommets = new EnsembleSommets();
+        source = null;
         for (int i = 0; i < n; i++) {
             ajouterSommet(i);
         }
     }
 
+    /**
+     * Construit une vue en lecture seule du graphe {@code source}
+     */
+    private Graphe(Graphe source) {
+        index = source.index;
+        sommets = Collections.unmodifiableSet(source.sommets);
+        this.source = source;
+    }
+
+    /**
+     * @return une vue en lecture seule de ce graphe, obtenue en temps constant : elle suit toutes les modifications
+     * du graphe et partage ses valeurs mémorisées, mais ses propres méthodes de modification (ajout ou retrait de
+     * sommets ou d'arêtes, largeur de la grille) lèvent {@code UnsupportedOperationException}. Comme pour les vues de
+     * {@link Collections}, les sommets sont ceux du graphe : ils ne doivent pas être modifiés par les lecteurs de la
+     * vue.
+     */
+    public Graphe vueLectureSeule() {
+        return source == null ? new Graphe(this) : this;
+    }
+
+    /**
+     * Lève {@code UnsupportedOperationException} si ce graphe est une vue en lecture seule
+     */
+    private void verifierModifiable() {
+        if (source != null) {
+            throw new UnsupportedOperationException("graphe en lecture seule");
+        }
+    }
+
     /**
      * Construit un graphe vide
      */
@@ -44,13 +118,14 @@ public class Graphe {
      *          même si en principe ce n'est pas obligatoire)
      */
     public Graphe(Graphe g, Set<Sommet> X) {
-        sommets = new HashSet<>();
+        this(0);
         Sommet newS;
         for (Sommet s : X) {
             newS = new Sommet(g.getSommet(s.getIndice()));
             newS.getVoisins().clear();
             ajouterSommet(newS);
         }
+        largeurGrille = g.getLargeurGrille();
         for (Sommet s : sommets) {
             for (Sommet voisin : g.getSommet(s.getIndice()).getVoisins()) {
                 if (X.contains(voisin)) {
@@ -61,21 +136,57 @@ public class Graphe {
 
     }
 
+    /**
+     * @return le nombre de tuiles des lignes paires de la grille hexagonale sur laquelle sont numérotés les sommets
+     * ({@code Plateau.LARGEUR} par défaut, comme pour les plateaux du jeu)
+     */
+    public int getLargeurGrille() {
+        return source == null ? largeurGrille : source.getLargeurGrille();
+    }
+
+    /**
+     * Indique que les numéros des sommets sont des indices de tuiles d'une grille hexagonale dont les lignes paires
+     * ont {@code largeurGrille} tuiles (par exemple un plateau généré plus grand que ceux du jeu), pour que
+     * {@link AlgorithmeDistance#A_ETOILE} puisse être utilisé
+     */
+    public void setLargeurGrille(int largeurGrille) {
+        verifierModifiable();
+        this.largeurGrille = largeurGrille;
+        csr = null;
+    }
+
     /**
      * @return true si et seulement si la séquence d'entiers passée en paramètre
-     * correspond à un graphe simple valide dont les degrés correspondent aux éléments de la liste.
-     * Pré-requis : on peut supposer que la séquence est triée dans l'ordre croissant.
+     * correspond à un graphe simple valide dont les degrés correspondent aux éléments de la liste
+     * (test d'Erdős–Gallai, voir {@link SequenceDegres#estGraphique(int[])}).
+     * La séquence peut être donnée dans un ordre quelconque.
      */
     public static boolean sequenceEstGraphe(List<Integer> sequence) {
-        double somme = 0;
-        int max = 0;
-        int taille = 0;
+        return SequenceDegres.estGraphique(versTableau(sequence));
+    }
+
+    /**
+     * @param sequence une séquence graphique
+     * @return un graphe simple sur les sommets 0..n-1 dont le sommet i a pour degré {@code sequence.get(i)},
+     * construit par l'algorithme de Havel–Hakimi (voir {@link SequenceDegres#realiser(int[])})
+     * @throws IllegalArgumentException si la séquence n'est pas graphique
+     */
+    public static Graphe construireDepuisSequence(List<Integer> sequence) {
+        int[] aretes = SequenceDegres.realiser(versTableau(sequence));
+        Graphe res = new Graphe(sequence.size());
+        for (int e = 0; e < aretes.length; e += 2) {
+            res.ajouterArete(res.getSommet(aretes[e]), res.getSommet(aretes[e + 1]));
+        }
+        return res;
+    }
+
+    private static int[] versTableau(List<Integer> sequence) {
+        int[] res = new int[sequence.size()];
+        int i = 0;
         for (int x : sequence) {
-            somme = somme + x;
-            if (x > max) max = x;
-            if (x != 0) taille = taille + 1;
+            res[i++] = x;
         }
-        return (somme / 2 == (double) (int) somme / 2 && !(max >= taille)) || sequence.isEmpty() || taille == 0;
+        return res;
     }
 
     /**
@@ -90,28 +201,17 @@ public class Graphe {
      * L'ensemble de joueurs du nouveau sommet sera l'union des ensembles de joueurs des sommets fusionnés.
      */
     public static Graphe fusionnerEnsembleSommets(Graphe g, Set<Sommet> ensemble) {
-        Graphe res = new Graphe(g, g.getSommets());
-        Set<Sommet> voisinsFusion = new HashSet<>();
-        if (!ensemble.isEmpty()) {
-            int indiceMin = Integer.MAX_VALUE;
-            int sommeSurcouts = 0;
-            int sommePtsVictoire = 0;
-            Set<Integer> unionJoueurs = new HashSet<>();
-            for (Sommet s : ensemble) {
-                indiceMin = Integer.min(indiceMin, s.getIndice());
-                sommeSurcouts += s.getSurcout();
-                sommePtsVictoire += s.getNbPointsVictoire();
-                unionJoueurs.addAll(s.getJoueurs());
-                voisinsFusion.addAll(s.getVoisins());
-            }
-            res.getSommets().removeAll(ensemble);
-            voisinsFusion.removeAll(ensemble);
-            Sommet Sfusion = Sommet.sommetBuilder.setIndice(indiceMin).setSurcout(sommeSurcouts).
-                    setNbPointsVictoire(sommePtsVictoire).setJoueurs(unionJoueurs).createSommet();
-            Sfusion.getVoisins().addAll(voisinsFusion);
-            res.ajouterSommet(Sfusion);
-        }
-        return res;
+        return new Contraction(g, List.of(ensemble)).getQuotient();
+    }
+
+    /**
+     * @param g         le graphe source, qui ne doit pas être modifié
+     * @param ensembles des ensembles de sommets de {@code g}, deux à deux disjoints
+     * @return un nouveau graphe obtenu en fusionnant chacun des ensembles donnés comme
+     * {@link #fusionnerEnsembleSommets(Graphe, Set)}, en une seule passe (voir {@link Contraction})
+     */
+    public static Graphe fusionnerEnsemblesSommets(Graphe g, Collection<? extends Set<Sommet>> ensembles) {
+        return new Contraction(g, ensembles).getQuotient();
     }
 
     /**
@@ -119,16 +219,12 @@ public class Graphe {
      * @return le sommet d'indice {@code i} dans le graphe ou null si le sommet d'indice {@code i} n'existe pas dans this
      */
     public Sommet getSommet(int i) {
-        for (Sommet s : sommets) {
-            if (s.getIndice() == i) {
-                return s;
-            }
-        }
-        return null;
+        return index.get(i);
     }
 
     /**
-     * @return l'ensemble des sommets du graphe
+     * @return l'ensemble des sommets du graphe. Les modifications de cet ensemble (ajouts, suppressions)
+     * sont répercutées sur le graphe.
      */
     public Set<Sommet> getSommets() {
         return sommets;
@@ -162,10 +258,79 @@ public class Graphe {
     }
 
     /**
-     * @return le nombre d'arêtes du graphe
+     * @return le nombre d'arêtes du graphe. Il est maintenu par {@link #ajouterArete(Sommet, Sommet)} et
+     * {@link #supprimerArete(Sommet, Sommet)} et n'est recompté (sans allocation) que si les voisins
+     * d'un sommet du graphe ou l'ensemble des sommets ont été modifiés par un autre moyen : les modifications des
+     * autres graphes ne l'invalident pas.
      */
     public int getNbAretes() {
-        return getAretes().size();
+        if (source != null) {
+            return source.getNbAretes();
+        }
+        long version = modifications.valeur();
+        Memoire<Integer> memoire = nbAretes;
+        if (memoire == null || memoire.version() != version) {
+            int[] compteur = new int[1];
+            pourChaqueArete((s, t) -> compteur[0]++);
+            memoire = new Memoire<>(version, compteur[0]);
+            nbAretes = memoire;
+        }
+        return memoire.valeur();
+    }
+
+    /**
+     * @return la matrice d'adjacence du graphe s'il a au plus {@code GrapheBitMatrice.TAILLE_MAX} sommets (null
+     * sinon). Elle est mémorisée et n'est reconstruite que si les voisins d'un sommet ou l'ensemble des sommets ont
+     * été modifiés.
+     */
+    GrapheBitMatrice getMatrice() {
+        if (getNbSommets() > GrapheBitMatrice.TAILLE_MAX) {
+            return null;
+        }
+        if (source != null) {
+            return source.getMatrice();
+        }
+        long version = modifications.valeur();
+        Memoire<GrapheBitMatrice> memoire = matrice;
+        if (memoire == null || memoire.version() != version) {
+            memoire = new Memoire<>(version, new GrapheBitMatrice(getGrapheCSR()));
+            matrice = memoire;
+        }
+        return memoire.valeur();
+    }
+
+    /**
+     * @return la représentation compacte du graphe, sur laquelle s'appuient ses algorithmes. Elle est mémorisée et
+     * n'est reconstruite que si les voisins ou les données d'un sommet, l'ensemble des sommets ou la largeur de la
+     * grille ont été modifiés. Elle est immuable : elle peut être gardée et parcourue depuis un autre fil.
+     */
+    public GrapheCSR getGrapheCSR() {
+        if (source != null) {
+            return source.getGrapheCSR();
+        }
+        long version = modifications.valeur();
+        Memoire<GrapheCSR> memoire = csr;
+        if (memoire == null || memoire.version() != version) {
+            memoire = new Memoire<>(version, new GrapheCSR(this));
+            csr = memoire;
+        }
+        return memoire.valeur();
+    }
+
+    /**
+     * Applique {@code action} à chaque arête du graphe, une seule fois par arête, avec les numéros
+     * de ses deux extrémités. Aucun objet n'est alloué par arête.
+     */
+    public void pourChaqueArete(ConsommateurArete action) {
+        for (Sommet s : sommets) {
+            for (Sommet v : s.getVoisins()) {
+                // chaque arête est donnée depuis son extrémité de plus petit numéro,
+                // sauf si elle n'est référencée que par l'autre extrémité
+                if (sommets.contains(v) && (s.getIndice() < v.getIndice() || !getSommet(v.getIndice()).estVoisin(s))) {
+                    action.accepter(s.getIndice(), v.getIndice());
+                }
+            }
+        }
     }
 
     /**
@@ -174,7 +339,7 @@ public class Graphe {
      * @param i l'entier correspondant à l'indice du sommet à ajouter dans le graphe
      */
     public boolean ajouterSommet(int i) {
-        return sommets.add(Sommet.sommetBuilder.setIndice(i).createSommet());
+        return sommets.add(Sommet.creerSommet(i));
     }
 
     /**
@@ -247,75 +412,87 @@ public class Graphe {
      * et que le graphe vide est un arbre.
      */
     public boolean estForet() {
-        Set<Set<Sommet>> classes = getEnsembleClassesConnexite();
-        Graphe composanteConnexe;
-        for (Set<Sommet> sommets : classes) {
-            composanteConnexe = new Graphe(this, sommets);
-            if (!composanteConnexe.estArbre()) {
-                return false;
-            }
-        }
-        return true;
+        return !possedeUnCycle();
     }
 
     /**
      * @return true si et seulement si this a au moins un cycle. On considère que le graphe vide n'est pas un cycle.
      */
     public boolean possedeUnCycle() {
-        return !estForet();
-        // arbre <=> sans cycle et connexe
-        // pas arbre <=> cycle ou pas connexe (or classe de connexite forcemment connexe)
+        return getGrapheCSR().possedeUnCycle();
     }
 
     /**
-     * @return true si et seulement si this a un isthme
+     * @return true si et seulement si this a un isthme (le parcours s'arrête au premier isthme trouvé)
      */
     public boolean possedeUnIsthme() {
-        Graphe composanteConnexe;
-        for (Set<Sommet> classe : getEnsembleClassesConnexite()) {
-            composanteConnexe = new Graphe(this, classe);
-            if (!composanteConnexe.estCycle() && composanteConnexe.getNbSommets() > 1) {
-                if (composanteConnexe.estChaine()) {
-                    return true;
-                } else {
-                    Iterator<Sommet> it;
-                    Sommet s1;
-                    Sommet s2;
-                    for (Set<Sommet> arete : composanteConnexe.getAretes()) {
-                        it = arete.iterator();
-                        s1 = it.next();
-                        s2 = it.next();
-                        composanteConnexe.supprimerArete(s1, s2);
-                        if (!composanteConnexe.estConnexe()) {
-                            composanteConnexe.ajouterArete(s1, s2);
-                            return true;
-                        }
-                        composanteConnexe.ajouterArete(s1, s2);
-                    }
-                }
-            }
+        return RechercheIsthmes.possedeUnIsthme(getGrapheCSR());
+    }
+
+    /**
+     * @return l'ensemble des isthmes du graphe sous forme d'ensemble de paires de sommets
+     */
+    public Set<Set<Sommet>> getIsthmes() {
+        Set<Set<Sommet>> isthmes = new HashSet<>();
+        for (int[] isthme : new RechercheIsthmes(getGrapheCSR()).getIsthmes()) {
+            isthmes.add(new HashSet<>(Set.of(getSommet(isthme[0]), getSommet(isthme[1]))));
         }
-        return false;
+        return isthmes;
+    }
+
+    /**
+     * @return l'ensemble des points d'articulation du graphe, c'est-à-dire des sommets dont la suppression
+     * augmente le nombre de classes de connexité
+     */
+    public Set<Sommet> getPointsArticulation() {
+        Set<Sommet> points = new HashSet<>();
+        for (int i : new RechercheIsthmes(getGrapheCSR()).getPointsArticulation()) {
+            points.add(getSommet(i));
+        }
+        return points;
     }
 
     public void ajouterArete(Sommet s, Sommet t) {
+        verifierModifiable();
         try {
             if (!s.equals(t) && sommets.contains(s) && sommets.contains(t)) {
+                Memoire<Integer> memoire = nbAretes;
+                boolean aJour = memoire != null && memoire.version() == modifications.valeur()
+                        && estPropre(s) && estPropre(t);
+                boolean nouvelle = !s.estVoisin(t) && !t.estVoisin(s);
                 s.ajouterVoisin(t);
                 t.ajouterVoisin(s);
+                if (aJour) {
+                    nbAretes = new Memoire<>(modifications.valeur(), memoire.valeur() + (nouvelle ? 1 : 0));
+                }
             }
         } catch (NullPointerException ignored) {
         }
     }
 
     public void supprimerArete(Sommet s, Sommet t) {
+        verifierModifiable();
         try {
+            Memoire<Integer> memoire = nbAretes;
+            boolean aJour = memoire != null && memoire.version() == modifications.valeur()
+                    && estPropre(s) && estPropre(t);
+            boolean existante = !s.equals(t) && (s.estVoisin(t) || t.estVoisin(s));
             s.getVoisins().remove(t);
             t.getVoisins().remove(s);
+            if (aJour) {
+                nbAretes = new Memoire<>(modifications.valeur(), memoire.valeur() - (existante ? 1 : 0));
+            }
         } catch (NullPointerException ignored) {
         }
     }
 
+    /**
+     * @return true si et seulement si {@code s} est l'objet sommet enregistré dans le graphe sous son numéro
+     */
+    private boolean estPropre(Sommet s) {
+        return getSommet(s.getIndice()) == s;
+    }
+
     /**
      * @return une coloration gloutonne du graphe sous forme d'une Map d'ensemble indépendants de sommets.
      * L'ordre de coloration des sommets est suivant l'ordre décroissant des degrés des sommets
@@ -325,11 +502,27 @@ public class Graphe {
         //INIT
         Map<Integer, Set<Sommet>> coloration = new HashMap<>();
         PriorityQueue<Sommet> sommetDesc = getSommetsDegresDecroissant();
+        GrapheBitMatrice matrice = getMatrice();
+        // classes de couleur sous forme de masques, pour tester les conflits mot par mot
+        List<long[]> classes = new ArrayList<>();
         Sommet s;
         //BOUCLE
         while (!sommetDesc.isEmpty()) {
             s = sommetDesc.poll();
-            int indiceCouleur = calulerCouleur(s, coloration);
+            int indiceCouleur;
+            if (matrice == null) {
+                indiceCouleur = calulerCouleur(s, coloration);
+            } else {
+                int p = matrice.getPosition(s.getIndice());
+                indiceCouleur = 1;
+                while (indiceCouleur <= classes.size() && matrice.aUnVoisinDans(p, classes.get(indiceCouleur - 1))) {
+                    indiceCouleur++;
+                }
+                if (indiceCouleur > classes.size()) {
+                    classes.add(matrice.masqueVide());
+                }
+                classes.get(indiceCouleur - 1)[p >>> 6] |= 1L << p;
+            }
             if (coloration.get(indiceCouleur) == null) {
                 coloration.put(indiceCouleur, new HashSet<>(Set.of(s)));
             } else {
@@ -343,86 +536,127 @@ public class Graphe {
      * @param depart  - ensemble non-vide de sommets
      * @param arrivee
      * @return le surcout total minimal du parcours entre l'ensemble de depart et le sommet d'arrivée
+     * (un seul parcours, tous les sommets de départ étant placés à distance 0)
      * pré-requis : l'ensemble de départ et le sommet d'arrivée sont inclus dans l'ensemble des sommets de this
      */
     public int getDistance(Set<Sommet> depart, Sommet arrivee) {
-        int min = Integer.MAX_VALUE;
-        for (Sommet d : depart) {
-            min = Math.min(min, getDistance(d, arrivee));
+        if (arrivee == null || !estPropre(arrivee)) {
+            return Integer.MAX_VALUE;
         }
-        return min;
+        return getGrapheCSR().getDistance(getNumerosPropres(depart), arrivee.getIndice());
     }
 
     /**
-     * @return le surcout total minimal du parcours entre le sommet de depart et le sommet d'arrivée
+     * @return pour chaque sommet atteignable depuis l'ensemble de départ, le surcout total minimal d'un parcours
+     * partant de l'un des sommets de cet ensemble (calculé en un seul parcours)
      */
+    public Map<Sommet, Integer> getDistances(Set<Sommet> depart) {
+        GrapheCSR csr = getGrapheCSR();
+        int[] distances = csr.getDistances(getNumerosPropres(depart));
+        Map<Sommet, Integer> res = new HashMap<>();
+        for (int p = 0; p < distances.length; p++) {
+            if (distances[p] != Integer.MAX_VALUE) {
+                res.put(getSommet(csr.getIndice(p)), distances[p]);
+            }
+        }
+        return res;
+    }
 
-    public int getDistance(Sommet depart, Sommet arrivee) {
-        try {
-            Map<Sommet, Integer> sommetParcouru = new HashMap<>();
-            PriorityQueue<Sommet> valeurParcouru = new PriorityQueue<>((o1, o2) -> sommetParcouru.get(o1) - sommetParcouru.get(o2));
-            Set<Sommet> visiter = new HashSet<>();
-            sommetParcouru.put(depart, 0);
-            sommetParcouru.put(arrivee, Integer.MAX_VALUE);
-            valeurParcouru.add(depart);
-            Sommet actuel = depart;
-            while (!valeurParcouru.isEmpty() && actuel != arrivee) {
-                actuel = valeurParcouru.poll();
-                visiter.add(actuel);
-                for (Sommet s : actuel.getVoisins()) {
-                    if (!visiter.contains(s)) {
-                        if (sommetParcouru.containsKey(s)) {
-                            if (sommetParcouru.get(actuel) + s.getSurcout() < sommetParcouru.get(s)) {
-                                sommetParcouru.put(s, sommetParcouru.get(actuel) + s.getSurcout());
-                            }
-                        } else {
-                            sommetParcouru.put(s, sommetParcouru.get(actuel) + s.getSurcout());
-                            valeurParcouru.add(s);
-                        }
-                    }
-                }
+    /**
+     * @return les numéros des sommets de {@code ensemble} qui sont des sommets de this
+     */
+    private int[] getNumerosPropres(Set<Sommet> ensemble) {
+        int[] numeros = new int[ensemble.size()];
+        int nb = 0;
+        for (Sommet s : ensemble) {
+            if (s != null && estPropre(s)) {
+                numeros[nb++] = s.getIndice();
             }
-            return sommetParcouru.get(arrivee);
-        } catch (NullPointerException ignored) {return Integer.MAX_VALUE;}
+        }
+        return Arrays.copyOf(numeros, nb);
+    }
+
+    /**
+     * @return le surcout total minimal du parcours entre le sommet de depart et le sommet d'arrivée,
+     * ou {@code Integer.MAX_VALUE} si l'un des sommets n'est pas dans le graphe ou s'ils ne sont pas reliés
+     */
+    public int getDistance(Sommet depart, Sommet arrivee) {
+        return getDistance(depart, arrivee, AlgorithmeDistance.DIJKSTRA);
+    }
+
+    /**
+     * Comme {@link #getDistance(Sommet, Sommet)}, avec l'algorithme choisi (voir {@link AlgorithmeDistance})
+     */
+    public int getDistance(Sommet depart, Sommet arrivee, AlgorithmeDistance algorithme) {
+        if (depart == null || arrivee == null || !estPropre(depart) || !estPropre(arrivee)) {
+            return Integer.MAX_VALUE;
+        }
+        return getGrapheCSR().getDistance(depart.getIndice(), arrivee.getIndice(), algorithme);
+    }
+
+    /**
+     * @return les sommets d'un parcours de surcout total minimal entre le sommet de depart et le sommet d'arrivée
+     * (extrémités comprises), ou une liste vide si l'un des sommets n'est pas dans le graphe ou s'ils ne sont pas reliés
+     */
+    public List<Sommet> getCheminLePlusCourt(Sommet depart, Sommet arrivee) {
+        List<Sommet> chemin = new ArrayList<>();
+        if (depart == null || arrivee == null || !estPropre(depart) || !estPropre(arrivee)) {
+            return chemin;
+        }
+        for (int numero : getGrapheCSR().getChemin(depart.getIndice(), arrivee.getIndice())) {
+            chemin.add(getSommet(numero));
+        }
+        return chemin;
     }
 
     /**
      * @return l'ensemble des classes de connexité du graphe sous forme d'un ensemble d'ensembles de sommets.
+     * Les classes sont étiquetées sans récursion, en parallèle pour les très grands graphes
+     * (voir {@link EtiquetageConnexite}).
      */
     public Set<Set<Sommet>> getEnsembleClassesConnexite() {
-        Set<Set<Sommet>> ensembleClassesConnexite = new HashSet<>();
-        if (sommets.isEmpty())
-            return ensembleClassesConnexite;
-        Set<Sommet> sommets = new HashSet<>(this.sommets);
-        while (!sommets.isEmpty()) {
-            Sommet v = sommets.iterator().next();
-            Set<Sommet> classe = getClasseConnexite(v);
-            sommets.removeAll(classe);
-            ensembleClassesConnexite.add(classe);
+        GrapheCSR csr = getGrapheCSR();
+        int[] etiquettes = csr.getEtiquettesConnexite();
+        List<Set<Sommet>> classes = new ArrayList<>();
+        for (int p = 0; p < etiquettes.length; p++) {
+            if (etiquettes[p] == classes.size()) {
+                classes.add(new HashSet<>());
+            }
+            classes.get(etiquettes[p]).add(getSommet(csr.getIndice(p)));
         }
-        return ensembleClassesConnexite;
+        return new HashSet<>(classes);
+    }
+
+    /**
+     * @return pour chaque position {@code p} de {@link #getGrapheCSR()} (les sommets rangés par numéro croissant),
+     * le numéro (0..k-1) de la classe de connexité du sommet de numéro {@code getGrapheCSR().getIndice(p)}. Les
+     * classes sont numérotées dans l'ordre de leur plus petit sommet. Le tableau a une case par sommet, quels que
+     * soient les numéros (négatifs ou très dispersés).
+     */
+    public int[] getEtiquettesConnexite() {
+        return getGrapheCSR().getEtiquettesConnexite();
     }
 
     /**
      * @param v un sommet du graphe this
-     * @return la classe de connexité du sommet {@code v} sous forme d'un ensemble de sommets.
+     * @return la classe de connexité du sommet {@code v} sous forme d'un ensemble de sommets (parcours en largeur
+     * avec une file explicite).
      */
     public Set<Sommet> getClasseConnexite(Sommet v) {
-        if (!sommets.contains(v))
-            return new HashSet<>();
         Set<Sommet> classe = new HashSet<>();
-        calculerClasseConnexite(v, classe);
-        return classe;
-    }
-
-    private void calculerClasseConnexite(Sommet v, Set<Sommet> dejaVus) {
-        dejaVus.add(v);
-        Set<Sommet> voisins = v.getVoisins();
-
-        for (Sommet voisin : voisins) {
-            if (dejaVus.add(voisin))
-                calculerClasseConnexite(voisin, dejaVus);
+        if (!sommets.contains(v))
+            return classe;
+        ArrayDeque<Sommet> file = new ArrayDeque<>();
+        classe.add(v);
+        file.add(v);
+        while (!file.isEmpty()) {
+            for (Sommet voisin : file.poll().getVoisins()) {
+                if (sommets.contains(voisin) && classe.add(voisin)) {
+                    file.add(voisin);
+                }
+            }
         }
+        return classe;
     }
 
     /**
@@ -430,7 +664,7 @@ public class Graphe {
      */
     public boolean estConnexe() {
         //on considère que le graphe vide est un arbre donc il est connexe
-        return getEnsembleClassesConnexite().size() <= 1;
+        return getGrapheCSR().estConnexe();
     }
 
     /**
@@ -446,131 +680,142 @@ public class Graphe {
 
     /**
      * @return une coloration propre optimale du graphe sous forme d'une Map d'ensemble indépendants de sommets.
-     * Chaque classe de couleur est représentée par un entier (la clé de la Map).
-     * Pré-requis : le graphe est issu du plateau du jeu Train (entre autres, il est planaire).
+     * Chaque classe de couleur est représentée par un entier (la clé de la Map), à partir de 1.
+     * La recherche exacte (voir {@link RechercheColoration}) dispose de {@code DELAI_COLORATION_OPTIMALE}
+     * millisecondes, au-delà desquelles on garde la meilleure coloration trouvée.
      */
     public Map<Integer, Set<Sommet>> getColorationPropreOptimale() {
-        HashMap<Integer, Set<Sommet>> coloration = new HashMap<>();
-        //Colorer tuile horizontalement 3 couleurs
-        Graphe cc;
-        for (Set<Sommet> classe : getEnsembleClassesConnexite()) {
-            cc = new Graphe(this, classe); //Composante Connexe
-
-            //INIT
-            LinkedHashSet<Sommet> ordreOpti = new LinkedHashSet<>(); //Determination de l'ordre de la coloration
-            Sommet curr = cc.getSommetInclusDansUnTriangle();
-            //Cas particulier où on n'arrive pas à trouver de triangles (3 tuiles reliées entre eux)
-            if (curr == null) {
-                cc.getColorationGloutonne();
-                for (Map.Entry<Integer, Set<Sommet>> entry : cc.getColorationGloutonne().entrySet()) {
-                    int indiceCouleur = entry.getKey();
-                    if (coloration.get(indiceCouleur) == null) {
-                        coloration.put(indiceCouleur, entry.getValue());
-                    } else {
-                        coloration.get(indiceCouleur).addAll(entry.getValue());
-                    }
-                }
-            } else {
-                ordreOpti.add(curr);
-                ordreOpti.addAll(curr.getVoisins());
-                Set<Sommet> sommetsDeg1;
-                boolean toutEstColore = false;
-
-                while (!toutEstColore) {
-                    if (!ordreOpti.addAll(cc.getSommetsAyantNvoisinsDeEnsemble(ordreOpti, 2))) {
-                        sommetsDeg1 = cc.getSommetsAyantNvoisinsDeEnsemble(ordreOpti, 1);
-                        if (sommetsDeg1.isEmpty()) {
-                            toutEstColore = true;
-                        } else {
-                            ordreOpti.add(sommetsDeg1.iterator().next());
-                        }
-                    }
-                }
-                ordreOpti.addAll(cc.getSommetsAyantNvoisinsDeEnsemble(ordreOpti, 1));
+        return getColorationPropreOptimale(DELAI_COLORATION_OPTIMALE);
+    }
 
-                //BOUCLE
-                for (Sommet s : ordreOpti) {
-                    int indiceCouleur = cc.calulerCouleur(s, coloration);
+    /**
+     * @return une coloration propre du graphe avec le moins de couleurs possible, la recherche exacte disposant
+     * d'au plus {@code delaiMillis} millisecondes
+     */
+    public Map<Integer, Set<Sommet>> getColorationPropreOptimale(long delaiMillis) {
+        GrapheCSR csr = getGrapheCSR();
+        return versClassesDeCouleur(csr, new RechercheColoration(csr, delaiMillis).getCouleurs());
+    }
 
-                    if (coloration.get(indiceCouleur) == null) {
-                        coloration.put(indiceCouleur, new HashSet<>(Set.of(s)));
-                    } else {
-                        coloration.get(indiceCouleur).add(s);
-                    }
-                }
-            }
+    /**
+     * @return la coloration DSatur du graphe (voir {@link RechercheColoration#getColorationDSatur(GrapheCSR)}) sous
+     * forme d'une Map d'ensemble indépendants de sommets
+     */
+    public Map<Integer, Set<Sommet>> getColorationDSatur() {
+        GrapheCSR csr = getGrapheCSR();
+        return versClassesDeCouleur(csr, RechercheColoration.getColorationDSatur(csr));
+    }
+
+    private Map<Integer, Set<Sommet>> versClassesDeCouleur(GrapheCSR csr, int[] couleurs) {
+        Map<Integer, Set<Sommet>> coloration = new HashMap<>();
+        for (int p = 0; p < couleurs.length; p++) {
+            coloration.computeIfAbsent(couleurs[p], c -> new HashSet<>()).add(getSommet(csr.getIndice(p)));
         }
         return coloration;
     }
 
     /**
      * @return true si et seulement si this possède un sous-graphe complet d'ordre {@code k}
+     * (recherche de cliques de Bron–Kerbosch, voir {@link RechercheCliques})
      */
     public boolean possedeSousGrapheComplet(int k) {
-        //Regarder les classes de connexités
-        //Pour chaque composante connexe :
-        //Trier les sommets en fonction de leur degré
-        //prendre les sommets de degré supérieur à k-1
-        //verifier pour chaque combinaison de sous graphe d'ordre 3 contenant ces sommets, si estComplet
-        //Si oui, alors true, Sinon continuer jusqu'à 0 combinaison
-        //Passer à la composante connexe suivante
-
-        check = false; //PRE INIT, variable globale pour stopper la recursivité
-        //CAS EXTREME
         if (k > getNbSommets() || k < 0) {
             return false;
         } else if (k <= 1) {
             return true;
-        } else if (estComplet()) {
-            return true;
-        } else if (k > 2 && !possedeUnCycle()) {
-            return false;
         }
-        //INIT
-        Set<Set<Sommet>> classesConnexite = getEnsembleClassesConnexite();
-        Graphe g; //pour stocker les composantes connexes
-        LinkedList<Sommet> sommetsGraphe;
-        LinkedList<Sommet> sommetsSousGraphe;
-
-        //PARCOURIR LES COMPOSANTES CONNEXES
-        for (Set<Sommet> classe : classesConnexite) {
-            g = new Graphe(this, classe); //composante connexe de this
-            if (g.estComplet() && g.getNbSommets() >= k) {
-                return true;
-            } else if (!((g.estChaine() && k > 2) || (g.estCycle() && k > 3) || (g.estArbre()) && k > 2)) {
-                //Conditions pour rendre l'algo plus rapide, car sinon le temps augmente avec l'arborescence du graphe, or si
-                //le graphe est un arbre alors, il n'a pas de cycle et connexe (composant connexe toujours connexe),
-                //or un graphe complet d'ordre supérieur à 2 a forcément un cycle.
-                //INIT
-                sommetsGraphe = g.getSommetsDegresDecroissantDegreSuperieurAOrdre(k);
-                sommetsSousGraphe = new LinkedList<>();
-                //BOUCLE
-                if (sousGrapheEstClique(sommetsGraphe, sommetsSousGraphe, 0, k, g)) {
-                    return true;
-                }
-            }
+        return new RechercheCliques(getGrapheCSR()).possedeClique(k);
+    }
+
+    /**
+     * @return les sommets d'un sous-graphe complet de this d'ordre maximum (vide si le graphe est vide)
+     */
+    public Set<Sommet> getCliqueMaximum() {
+        Set<Sommet> clique = new HashSet<>();
+        for (int numero : new RechercheCliques(getGrapheCSR()).getCliqueMaximum()) {
+            clique.add(getSommet(numero));
         }
-        return false;
+        return clique;
+    }
+
+    /**
+     * Applique {@code action} à chaque sous-graphe complet maximal (au sens de l'inclusion) de this, tant que
+     * {@code action} renvoie true
+     */
+    public void pourChaqueCliqueMaximale(Predicate<Set<Sommet>> action) {
+        new RechercheCliques(getGrapheCSR()).pourChaqueCliqueMaximale(numeros -> {
+            Set<Sommet> clique = new HashSet<>();
+            for (int numero : numeros) {
+                clique.add(getSommet(numero));
+            }
+            return action.test(clique);
+        });
     }
 
     /**
      * @param g un graphe
-     * @return true si et seulement si this possède un sous-graphe isomorphe à {@code g}
+     * @return true si et seulement si this possède un sous-graphe isomorphe à {@code g} (voir
+     * {@link RecherchePlongements})
      */
     public boolean possedeSousGrapheIsomorphe(Graphe g) {
-        throw new RuntimeException("Méthode à implémenter");
+        return possedeSousGrapheIsomorphe(g, () -> false);
     }
 
     /**
+     * Comme {@link #possedeSousGrapheIsomorphe(Graphe)}, en consultant régulièrement {@code annulation} pendant la
+     * recherche
+     *
+     * @throws java.util.concurrent.CancellationException si {@code annulation} a renvoyé true avant que la réponse
+     *                                                    soit connue
+     */
+    public boolean possedeSousGrapheIsomorphe(Graphe g, BooleanSupplier annulation) {
+        if (g == null) {
+            return false;
+        }
+        return new RecherchePlongements(g.getGrapheCSR(), getGrapheCSR()).existe(annulation);
+    }
+
+    /**
+     * Applique {@code action} à chaque plongement de {@code motif} dans this, tant que {@code action} renvoie true.
+     * Un plongement associe à chaque sommet de {@code motif} un sommet distinct de this, de sorte que toute arête de
+     * {@code motif} corresponde à une arête de this.
+     */
+    public void pourChaquePlongement(Graphe motif, Predicate<Map<Sommet, Sommet>> action) {
+        GrapheCSR csrMotif = motif.getGrapheCSR();
+        new RecherchePlongements(csrMotif, getGrapheCSR()).pourChaquePlongement(numeros -> {
+            Map<Sommet, Sommet> plongement = new HashMap<>();
+            for (int p = 0; p < numeros.length; p++) {
+                plongement.put(motif.getSommet(csrMotif.getIndice(p)), getSommet(numeros[p]));
+            }
+            return action.test(plongement);
+        });
+    }
+
+    /**
+     * Un ensemble X de sommets (ne contenant ni s ni t) est critique si tout chemin entre s et t passe par un sommet
+     * de X. Le plus petit est obtenu par un calcul de flot maximum (voir {@link CoupeMinimaleSommets}).
+     *
      * @param s
      * @param t
      * @return un ensemble de sommets qui forme un ensemble critique de plus petite taille entre {@code s} et {@code t}
+     * (l'ensemble vide si s et t ne sont pas reliés, ou s'ils sont égaux ou voisins, auquel cas aucun ensemble ne
+     * les sépare)
      */
     public Set<Sommet> getEnsembleCritique(Sommet s, Sommet t) {
-        minEnsCritique = Integer.MAX_VALUE; //reset
-        PriorityQueue<Set<Sommet>> ensDep = new PriorityQueue<>((o1, o2) -> o1.size()-o2.size());
-        calculerEnsCritiques(ensDep, new HashSet<>(), s, s, t);
-        return ensDep.peek();
+        Set<Sommet> ensemble = new HashSet<>();
+        if (s == null || t == null || !estPropre(s) || !estPropre(t)) {
+            return ensemble;
+        }
+        GrapheCSR csr = getGrapheCSR();
+        int ps = csr.getPosition(s.getIndice());
+        int pt = csr.getPosition(t.getIndice());
+        if (ps == pt || csr.estVoisin(ps, pt)) {
+            return ensemble;
+        }
+        for (int numero : new CoupeMinimaleSommets(csr, ps, pt).getCoupe()) {
+            ensemble.add(getSommet(numero));
+        }
+        return ensemble;
     }
 
     //METHODES AJOUTEES =======================================================================
@@ -582,32 +827,8 @@ public class Graphe {
         if (sommets.isEmpty()) {
             return true;
         }
-        return estConnexe() && (getNbAretes() == getNbSommets() - 1);
-    }
-
-    /**
-     * Fonction recursive por calculer les combinaisons de graphe d'ordre k, avec des sommets contenus
-     * dans ensembleInit. Pour chaque combinaison, vérifie si la combinaison ensembleCourrant forme un graphe complet.
-     * S'arrete lorsqu'il en trouve un.
-     */
-    private boolean sousGrapheEstClique(List<Sommet> ensembleInit, List<Sommet> ensembleCourrant,
-                                        int indiceCourrant, int k, Graphe sousGraphe) {
-
-        if (ensembleCourrant.size() == k) {
-            sousGraphe = new Graphe(this, new HashSet<>(ensembleCourrant));
-            if (sousGraphe.estComplet()) {
-                check = true;
-            }
-            return check;
-        }
-        for (int i = indiceCourrant; i <= ensembleInit.size() - k + ensembleCourrant.size(); i++) {
-            ensembleCourrant.add(ensembleInit.get(i));
-            if (!check) {
-                sousGrapheEstClique(ensembleInit, ensembleCourrant, i + 1, k, sousGraphe);
-            }
-            ensembleCourrant.remove(ensembleCourrant.size() - 1);
-        }
-        return check;
+        // n-1 arêtes sans cycle <=> n-1 arêtes et connexe
+        return getNbAretes() == getNbSommets() - 1 && !possedeUnCycle();
     }
 
     /**
@@ -692,8 +913,20 @@ public class Graphe {
         return sequence;
     }
 
+    /**
+     * @return les sommets de this hors de {@code ensemble} ayant au moins {@code n} voisins dans {@code ensemble}
+     * (par la matrice d'adjacence pour les petits graphes)
+     */
     public Set<Sommet> getSommetsAyantNvoisinsDeEnsemble(Set<Sommet> ensemble, int n) {
         Set<Sommet> res = new HashSet<>();
+        GrapheBitMatrice matrice = getMatrice();
+        if (matrice != null) {
+            long[] trouves = matrice.getSommetsAyantNvoisinsDans(matrice.masqueComplet(), matrice.masque(ensemble), n);
+            for (int p = GrapheBitMatrice.suivant(trouves, 0); p >= 0; p = GrapheBitMatrice.suivant(trouves, p + 1)) {
+                res.add(getSommet(matrice.getIndice(p)));
+            }
+            return res;
+        }
         Set<Sommet> aExplorer = new HashSet<>(sommets);
         aExplorer.removeAll(ensemble);
         int countVoisin;
@@ -713,7 +946,15 @@ public class Graphe {
         return res;
     }
 
+    /**
+     * @return un sommet de this appartenant à un triangle, ou null s'il n'y en a pas
+     */
     public Sommet getSommetInclusDansUnTriangle() {
+        GrapheBitMatrice matrice = getMatrice();
+        if (matrice != null) {
+            int p = matrice.getSommetDansUnTriangle(matrice.masqueComplet());
+            return p < 0 ? null : getSommet(matrice.getIndice(p));
+        }
         for (Sommet s : sommets) {
             if (s.isInTriangle()) {
                 return s;
@@ -750,24 +991,114 @@ public class Graphe {
         return i;
     }
 
-    public void calculerEnsCritiques(Collection<Set<Sommet>> ensDep, Set<Sommet> ensC, Sommet s, Sommet curr, Sommet t) {
-        ensC = new HashSet<>(ensC);
-        ensC.add(curr);
-        if (ensC.size() >= minEnsCritique) {
-            return;
+    /**
+     * Valeur calculée par une requête, avec la version des ensembles de voisins à laquelle elle a été calculée.
+     * Les deux sont publiées ensemble par une seule écriture d'un champ volatile : des requêtes concurrentes sur un
+     * graphe qui n'est pas modifié peuvent recalculer la même valeur, mais jamais lire une valeur associée à la
+     * mauvaise version.
+     */
+    private record Memoire<T>(long version, T valeur) {
+    }
+
+    /**
+     * Compteur de modifications propre à un graphe. Les sommets gardent une référence faible vers ce compteur et non
+     * vers le graphe : un sommet ne retient jamais un graphe qui n'est plus utilisé, et oublie son compteur une fois
+     * celui-ci récupéré par le ramasse-miettes.
+     */
+    static final class Compteur {
+        private volatile long valeur;
+
+        /**
+         * Appelé seulement par le fil qui modifie le graphe : les lectures concurrentes voient la nouvelle valeur
+         * (le champ est volatile) sans qu'il faille une opération atomique.
+         */
+        void incrementer() {
+            valeur++;
+        }
+
+        long valeur() {
+            return valeur;
+        }
+    }
+
+    /**
+     * Ensemble des sommets adossé à l'index {@code numéro -> sommet}.
+     * Deux sommets étant égaux si et seulement s'ils ont le même numéro, l'ensemble se comporte
+     * comme un {@code HashSet<Sommet>} tout en gardant l'index cohérent.
+     */
+    private class EnsembleSommets extends AbstractSet<Sommet> {
+        @Override
+        public Iterator<Sommet> iterator() {
+            Iterator<Sommet> it = index.values().iterator();
+            return new Iterator<>() {
+                private Sommet courant;
+
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public Sommet next() {
+                    courant = it.next();
+                    return courant;
+                }
+
+                @Override
+                public void remove() {
+                    it.remove();
+                    courant.retirerGraphe(modifications);
+                    nbAretes = null;
+                    matrice = null;
+                    csr = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return index.size();
         }
-        if (curr.equals(t)) {
-            minEnsCritique = ensC.size();
-            ensC.remove(s);
-            ensC.remove(t);
-            ensDep.add(ensC);
-            return;
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Sommet s && index.containsKey(s.getIndice());
         }
-        for (Sommet v : curr.getVoisins()) {
-            if (!ensC.contains(v)) {
-                calculerEnsCritiques(ensDep, ensC, s, v, t);
+
+        @Override
+        public boolean add(Sommet s) {
+            boolean ajoute = s != null && index.putIfAbsent(s.getIndice(), s) == null;
+            if (ajoute) {
+                s.ajouterGraphe(modifications);
+                nbAretes = null;
+                matrice = null;
+                csr = null;
+            }
+            return ajoute;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            Sommet retire = o instanceof Sommet s ? index.remove(s.getIndice()) : null;
+            if (retire != null) {
+                retire.retirerGraphe(modifications);
+                nbAretes = null;
+                matrice = null;
+                csr = null;
+            }
+            return retire != null;
+        }
+
+        @Override
+        public void clear() {
+            for (Sommet s : index.values()) {
+                s.retirerGraphe(modifications);
             }
+            index.clear();
+            nbAretes = null;
+            matrice = null;
+            csr = null;
         }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,221 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Représentation figée d'un graphe par sa matrice d'adjacence, chaque ligne étant un masque de bits
+ * ({@code long[]}) : pour un plateau d'environ 76 tuiles, la matrice tient dans 76 × 2 mots.
+ * Comme pour {@link GrapheCSR}, les sommets sont désignés par leur position 0..n-1, dans l'ordre croissant des
+ * numéros. Les ensembles de sommets sont des masques de la même taille que les lignes, si bien que les tests de
+ * voisinage portant sur un ensemble (triangle, clique, nombre de voisins dans un ensemble, conflit avec une classe
+ * de couleur) se font par des ET et des comptages de bits, 64 sommets à la fois.
+ * La matrice occupe n² / 8 octets : elle n'est utilisée que pour des graphes d'au plus {@code TAILLE_MAX} sommets.
+ */
+public class GrapheBitMatrice {
+    /**
+     * Nombre de sommets au-delà duquel un graphe n'utilise pas de matrice d'adjacence
+     */
+    public static final int TAILLE_MAX = 512;
+
+    private final int[] indices;
+    private final int mots;
+    private final long[][] lignes;
+    /**
+     * Masque de toutes les positions
+     */
+    private final long[] tous;
+
+    public GrapheBitMatrice(GrapheCSR g) {
+        int n = g.getNbSommets();
+        indices = new int[n];
+        mots = (n + 63) >>> 6;
+        lignes = new long[n][mots];
+        tous = new long[mots];
+        for (int p = 0; p < n; p++) {
+            indices[p] = g.getIndice(p);
+            tous[p >>> 6] |= 1L << p;
+            for (int k = g.debutVoisins(p); k < g.finVoisins(p); k++) {
+                int q = g.cible(k);
+                lignes[p][q >>> 6] |= 1L << q;
+            }
+        }
+    }
+
+    public int getNbSommets() {
+        return indices.length;
+    }
+
+    /**
+     * @return la position du sommet de numéro {@code indice}, ou -1 s'il n'est pas dans le graphe
+     */
+    public int getPosition(int indice) {
+        int p = Arrays.binarySearch(indices, indice);
+        return p >= 0 ? p : -1;
+    }
+
+    public int getIndice(int p) {
+        return indices[p];
+    }
+
+    public boolean estVoisin(int p, int q) {
+        return (lignes[p][q >>> 6] >>> (q & 63) & 1) != 0;
+    }
+
+    public int degre(int p) {
+        return cardinal(lignes[p]);
+    }
+
+    /**
+     * @return un masque vide
+     */
+    public long[] masqueVide() {
+        return new long[mots];
+    }
+
+    /**
+     * @return le masque de toutes les positions (à ne pas modifier)
+     */
+    public long[] masqueComplet() {
+        return tous;
+    }
+
+    /**
+     * @return le masque des positions des sommets de {@code sommets} qui sont dans le graphe
+     */
+    public long[] masque(Collection<Sommet> sommets) {
+        long[] masque = new long[mots];
+        for (Sommet s : sommets) {
+            int p = s == null ? -1 : getPosition(s.getIndice());
+            if (p >= 0) {
+                masque[p >>> 6] |= 1L << p;
+            }
+        }
+        return masque;
+    }
+
+    /**
+     * @return le nombre de voisins de {@code p} dans {@code masque}
+     */
+    public int nbVoisinsDans(int p, long[] masque) {
+        long[] ligne = lignes[p];
+        int c = 0;
+        for (int w = 0; w < mots; w++) {
+            c += Long.bitCount(ligne[w] & masque[w]);
+        }
+        return c;
+    }
+
+    /**
+     * @return true si et seulement si {@code p} a un voisin dans {@code masque} (par exemple, si {@code p} ne peut
+     * pas recevoir la couleur dont {@code masque} est la classe)
+     */
+    public boolean aUnVoisinDans(int p, long[] masque) {
+        long[] ligne = lignes[p];
+        for (int w = 0; w < mots; w++) {
+            if ((ligne[w] & masque[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true si et seulement si {@code p} appartient à un triangle du sous-graphe induit par {@code masque}
+     * (pré-requis : {@code p} est dans {@code masque})
+     */
+    public boolean estDansUnTriangle(int p, long[] masque) {
+        long[] ligne = lignes[p];
+        for (int w = 0; w < mots; w++) {
+            long voisins = ligne[w] & masque[w];
+            while (voisins != 0) {
+                int q = (w << 6) + Long.numberOfTrailingZeros(voisins);
+                voisins &= voisins - 1;
+                long[] ligneQ = lignes[q];
+                for (int x = 0; x < mots; x++) {
+                    if ((ligne[x] & ligneQ[x] & masque[x]) != 0) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return la plus petite position appartenant à un triangle du sous-graphe induit par {@code masque}, ou -1
+     */
+    public int getSommetDansUnTriangle(long[] masque) {
+        for (int p = suivant(masque, 0); p >= 0; p = suivant(masque, p + 1)) {
+            if (estDansUnTriangle(p, masque)) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return true si et seulement si les sommets de {@code masque} sont deux à deux voisins
+     */
+    public boolean estClique(long[] masque) {
+        for (int p = suivant(masque, 0); p >= 0; p = suivant(masque, p + 1)) {
+            long[] ligne = lignes[p];
+            for (int w = 0; w < mots; w++) {
+                long attendu = masque[w];
+                if (w == p >>> 6) {
+                    attendu &= ~(1L << p);
+                }
+                if ((ligne[w] & attendu) != attendu) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public boolean estComplet() {
+        return estClique(tous);
+    }
+
+    /**
+     * @return le masque des positions de {@code domaine} hors de {@code ensemble} ayant au moins {@code n} voisins
+     * dans {@code ensemble}
+     */
+    public long[] getSommetsAyantNvoisinsDans(long[] domaine, long[] ensemble, int n) {
+        long[] res = new long[mots];
+        for (int p = suivant(domaine, 0); p >= 0; p = suivant(domaine, p + 1)) {
+            if ((ensemble[p >>> 6] >>> (p & 63) & 1) == 0 && nbVoisinsDans(p, ensemble) >= n) {
+                res[p >>> 6] |= 1L << p;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * @return la plus petite position de {@code masque} supérieure ou égale à {@code depuis}, ou -1 s'il n'y en a pas
+     */
+    public static int suivant(long[] masque, int depuis) {
+        int w = depuis >>> 6;
+        if (w >= masque.length) {
+            return -1;
+        }
+        long mot = masque[w] & (-1L << (depuis & 63));
+        while (true) {
+            if (mot != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(mot);
+            }
+            if (++w == masque.length) {
+                return -1;
+            }
+            mot = masque[w];
+        }
+    }
+
+    private static int cardinal(long[] masque) {
+        int c = 0;
+        for (long mot : masque) {
+            c += Long.bitCount(mot);
+        }
+        return c;
+    }
+}
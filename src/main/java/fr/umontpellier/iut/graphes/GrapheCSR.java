@@ -0,0 +1,560 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.trains.Jeu;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import fr.umontpellier.iut.trains.plateau.Tuile;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Représentation figée d'un graphe au format CSR (Compressed Sparse Row).
+ * Les sommets sont rangés par numéro croissant et désignés en interne par leur position 0..n-1.
+ * Les voisins de la position {@code p} sont {@code cibles[debuts[p]..debuts[p+1]-1]}.
+ * Les données des sommets (surcout, points de victoire, joueurs) sont stockées dans des tableaux parallèles,
+ * l'ensemble des joueurs étant codé par un masque de bits (le bit {@code j} correspond au joueur {@code j}).
+ * Une fois construit, l'objet n'est plus modifiable.
+ */
+public final class GrapheCSR implements GrapheIndexe {
+    /**
+     * Numéro du sommet à chaque position (trié par ordre croissant).
+     */
+    private final int[] indices;
+    /**
+     * Début de la liste des voisins de chaque position dans {@code cibles} (taille n+1).
+     */
+    private final int[] debuts;
+    /**
+     * Positions des voisins, concaténées sommet par sommet.
+     */
+    private final int[] cibles;
+    private final int[] surcouts;
+    private final int[] nbPointsVictoire;
+    private final int[] masquesJoueurs;
+    /**
+     * Nombre de tuiles des lignes paires de la grille hexagonale sur laquelle sont numérotés les sommets
+     */
+    private final int largeurGrille;
+    /**
+     * Résultat de {@link #estSurPlateau()} (null tant qu'il n'a pas été calculé)
+     */
+    private volatile Boolean surPlateau;
+    /**
+     * Résultat de {@link #getSurcoutMin()} (null tant qu'il n'a pas été calculé)
+     */
+    private volatile Integer surcoutMin;
+
+    /**
+     * Construit la représentation CSR d'un graphe. Seules les arêtes dont les deux extrémités
+     * appartiennent au graphe sont conservées.
+     */
+    public GrapheCSR(Graphe g) {
+        largeurGrille = g.getLargeurGrille();
+        int n = g.getNbSommets();
+        Sommet[] sommets = g.getSommets().toArray(new Sommet[0]);
+        Arrays.sort(sommets, (s1, s2) -> Integer.compare(s1.getIndice(), s2.getIndice()));
+        indices = new int[n];
+        surcouts = new int[n];
+        nbPointsVictoire = new int[n];
+        masquesJoueurs = new int[n];
+        for (int p = 0; p < n; p++) {
+            Sommet s = sommets[p];
+            indices[p] = s.getIndice();
+            surcouts[p] = s.getSurcout();
+            nbPointsVictoire[p] = s.getNbPointsVictoire();
+            masquesJoueurs[p] = masque(s.getJoueurs());
+        }
+
+        // une arête {s, t} existe dès que l'un des deux sommets référence l'autre
+        debuts = new int[n + 1];
+        int[][] listes = new int[n][];
+        int[] tailles = new int[n];
+        for (int p = 0; p < n; p++) {
+            listes[p] = new int[Math.max(2, sommets[p].getVoisins().size())];
+        }
+        for (int p = 0; p < n; p++) {
+            for (Sommet voisin : sommets[p].getVoisins()) {
+                int q = Arrays.binarySearch(indices, voisin.getIndice());
+                if (q >= 0 && q != p) {
+                    if (q > p || !sommets[q].estVoisin(sommets[p])) {
+                        listes[p] = ajouter(listes[p], tailles[p]++, q);
+                        listes[q] = ajouter(listes[q], tailles[q]++, p);
+                    }
+                }
+            }
+        }
+        for (int p = 0; p < n; p++) {
+            debuts[p + 1] = debuts[p] + tailles[p];
+        }
+        cibles = new int[debuts[n]];
+        for (int p = 0; p < n; p++) {
+            Arrays.sort(listes[p], 0, tailles[p]);
+            System.arraycopy(listes[p], 0, cibles, debuts[p], tailles[p]);
+        }
+    }
+
+    /**
+     * Construit directement la représentation CSR du plateau d'un jeu (sans les tuiles Mer),
+     * sans passer par les objets {@code Sommet}. Le résultat est identique à {@code new GrapheCSR(jeu.getGraphe())}.
+     */
+    public GrapheCSR(Jeu jeu) {
+        largeurGrille = Plateau.LARGEUR;
+        List<Tuile> tuiles = jeu.getTuiles();
+        Map<Tuile, Integer> positions = new IdentityHashMap<>();
+        int n = 0;
+        for (Tuile tuile : tuiles) {
+            if (!tuile.estMer()) {
+                positions.put(tuile, n++);
+            }
+        }
+        indices = new int[n];
+        surcouts = new int[n];
+        nbPointsVictoire = new int[n];
+        masquesJoueurs = new int[n];
+        debuts = new int[n + 1];
+        int nbCibles = 0;
+        for (int i = 0; i < tuiles.size(); i++) {
+            Tuile tuile = tuiles.get(i);
+            Integer p = positions.get(tuile);
+            if (p != null) {
+                indices[p] = i;
+                surcouts[p] = tuile.getSurcout();
+                nbPointsVictoire[p] = tuile.getNbPointsVictoire();
+                for (int j = 0; j < jeu.getJoueurs().size(); j++) {
+                    if (tuile.hasRail(jeu.getJoueurs().get(j))) {
+                        masquesJoueurs[p] |= 1 << j;
+                    }
+                }
+                for (Tuile voisine : tuile.getVoisines()) {
+                    if (!voisine.estMer()) {
+                        nbCibles++;
+                    }
+                }
+                debuts[p + 1] = nbCibles;
+            }
+        }
+        cibles = new int[nbCibles];
+        for (Tuile tuile : tuiles) {
+            Integer p = positions.get(tuile);
+            if (p != null) {
+                int k = debuts[p];
+                for (Tuile voisine : tuile.getVoisines()) {
+                    if (!voisine.estMer()) {
+                        cibles[k++] = positions.get(voisine);
+                    }
+                }
+                Arrays.sort(cibles, debuts[p], k);
+            }
+        }
+    }
+
+    /**
+     * Construit un graphe ayant les mêmes sommets et les mêmes arêtes que {@code topologie}, avec les données de
+     * sommets données (par position). Les tableaux de la topologie ne sont pas recopiés mais partagés, ce qui est
+     * sans risque puisqu'ils ne sont jamais modifiés.
+     */
+    GrapheCSR(GrapheCSR topologie, int[] surcouts, int[] nbPointsVictoire, int[] masquesJoueurs) {
+        indices = topologie.indices;
+        debuts = topologie.debuts;
+        cibles = topologie.cibles;
+        largeurGrille = topologie.largeurGrille;
+        surPlateau = topologie.surPlateau;
+        this.surcouts = surcouts;
+        this.nbPointsVictoire = nbPointsVictoire;
+        this.masquesJoueurs = masquesJoueurs;
+    }
+
+    private static int[] ajouter(int[] liste, int taille, int valeur) {
+        if (taille == liste.length) {
+            liste = Arrays.copyOf(liste, 2 * taille);
+        }
+        liste[taille] = valeur;
+        return liste;
+    }
+
+    private static int masque(Iterable<Integer> joueurs) {
+        int masque = 0;
+        for (Integer j : joueurs) {
+            if (j != null && j >= 0 && j < Integer.SIZE) {
+                masque |= 1 << j;
+            }
+        }
+        return masque;
+    }
+
+    /**
+     * @return l'ordre du graphe
+     */
+    public int getNbSommets() {
+        return indices.length;
+    }
+
+    /**
+     * @return le nombre de positions, c'est-à-dire l'ordre du graphe
+     */
+    public int getNbPositions() {
+        return indices.length;
+    }
+
+    /**
+     * @return le nombre d'arêtes du graphe
+     */
+    public int getNbAretes() {
+        return cibles.length / 2;
+    }
+
+    /**
+     * Applique {@code action} à chaque arête du graphe, une seule fois par arête,
+     * avec les numéros de ses deux extrémités (le plus petit en premier).
+     */
+    public void pourChaqueArete(ConsommateurArete action) {
+        for (int p = 0; p < indices.length; p++) {
+            for (int k = debuts[p]; k < debuts[p + 1]; k++) {
+                if (cibles[k] > p) {
+                    action.accepter(indices[p], indices[cibles[k]]);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param indice un numéro de sommet
+     * @return la position du sommet de numéro {@code indice} ou -1 s'il n'appartient pas au graphe
+     */
+    public int getPosition(int indice) {
+        int p = Arrays.binarySearch(indices, indice);
+        return p >= 0 ? p : -1;
+    }
+
+    /**
+     * @return le numéro du sommet à la position {@code p}
+     */
+    public int getIndice(int p) {
+        return indices[p];
+    }
+
+    public int getSurcout(int p) {
+        return surcouts[p];
+    }
+
+    public int getNbPointsVictoire(int p) {
+        return nbPointsVictoire[p];
+    }
+
+    /**
+     * @return le masque des joueurs ayant un rail sur le sommet à la position {@code p}
+     */
+    public int getMasqueJoueurs(int p) {
+        return masquesJoueurs[p];
+    }
+
+    public boolean aRail(int p, int joueur) {
+        return (masquesJoueurs[p] & (1 << joueur)) != 0;
+    }
+
+    public int degre(int p) {
+        return debuts[p + 1] - debuts[p];
+    }
+
+    /**
+     * @return la position du k-ième voisin (dans l'ordre croissant) du sommet à la position {@code p}
+     */
+    public int getVoisin(int p, int k) {
+        return cibles[debuts[p] + k];
+    }
+
+    /**
+     * @return la position du premier voisin de {@code p} dans le tableau des cibles
+     * (les voisins de {@code p} sont aux rangs {@code debutVoisins(p)..finVoisins(p)-1})
+     */
+    public int debutVoisins(int p) {
+        return debuts[p];
+    }
+
+    public int finVoisins(int p) {
+        return debuts[p + 1];
+    }
+
+    /**
+     * @return la position du voisin rangé au rang {@code k} du tableau des cibles
+     */
+    public int cible(int k) {
+        return cibles[k];
+    }
+
+    public boolean estVoisin(int p, int q) {
+        return Arrays.binarySearch(cibles, debuts[p], debuts[p + 1], q) >= 0;
+    }
+
+    /**
+     * @return le degré maximum des sommets du graphe
+     */
+    public int degreMax() {
+        int max = 0;
+        for (int p = 0; p < indices.length; p++) {
+            max = Math.max(max, degre(p));
+        }
+        return max;
+    }
+
+    /**
+     * @return pour chaque position, le numéro (0..k-1) de sa classe de connexité.
+     * Les classes sont numérotées dans l'ordre de leur plus petit sommet (voir {@link EtiquetageConnexite}).
+     */
+    public int[] getEtiquettesConnexite() {
+        return EtiquetageConnexite.etiqueter(this);
+    }
+
+    /**
+     * @return le nombre de classes de connexité du graphe
+     */
+    public int getNbClassesConnexite() {
+        int max = -1;
+        for (int e : getEtiquettesConnexite()) {
+            max = Math.max(max, e);
+        }
+        return max + 1;
+    }
+
+    /**
+     * @return true si et seulement si le graphe est connexe (le graphe vide est connexe)
+     */
+    public boolean estConnexe() {
+        return getNbClassesConnexite() <= 1;
+    }
+
+    /**
+     * @return true si et seulement si le graphe possède un cycle. Les arêtes sont ajoutées une à une dans une
+     * structure union-find : la première arête dont les extrémités sont déjà reliées ferme un cycle.
+     */
+    public boolean possedeUnCycle() {
+        EnsemblesDisjoints classes = new EnsemblesDisjoints(indices.length);
+        for (int p = 0; p < indices.length; p++) {
+            for (int k = debuts[p]; k < debuts[p + 1]; k++) {
+                if (cibles[k] > p && !classes.unir(p, cibles[k])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true si et seulement si le graphe est une forêt (sans cycle)
+     */
+    public boolean estForet() {
+        return !possedeUnCycle();
+    }
+
+    /**
+     * @return true si et seulement si le graphe est un arbre (le graphe vide est un arbre)
+     */
+    public boolean estArbre() {
+        return indices.length == 0 || (getNbAretes() == indices.length - 1 && !possedeUnCycle());
+    }
+
+    /**
+     * @return les classes de connexité du graphe, chacune sous forme d'un tableau trié de numéros de sommets
+     */
+    public int[][] getEnsembleClassesConnexite() {
+        int[] etiquettes = getEtiquettesConnexite();
+        int nbClasses = 0;
+        for (int e : etiquettes) {
+            nbClasses = Math.max(nbClasses, e + 1);
+        }
+        int[] tailles = new int[nbClasses];
+        for (int e : etiquettes) {
+            tailles[e]++;
+        }
+        int[][] classes = new int[nbClasses][];
+        for (int c = 0; c < nbClasses; c++) {
+            classes[c] = new int[tailles[c]];
+            tailles[c] = 0;
+        }
+        for (int p = 0; p < etiquettes.length; p++) {
+            int c = etiquettes[p];
+            classes[c][tailles[c]++] = indices[p];
+        }
+        return classes;
+    }
+
+    /**
+     * @return le surcout total minimal du parcours entre les sommets de numéros {@code depart} et {@code arrivee},
+     * ou {@code Integer.MAX_VALUE} si l'un des sommets n'existe pas ou s'ils ne sont pas reliés
+     */
+    public int getDistance(int depart, int arrivee) {
+        return getDistance(depart, arrivee, AlgorithmeDistance.DIJKSTRA);
+    }
+
+    /**
+     * Comme {@link #getDistance(int, int)}, avec l'algorithme choisi. {@code A_ETOILE} n'est utilisé que si
+     * {@link #estSurPlateau()} : sur les autres graphes, son heuristique pourrait surestimer la distance et la
+     * recherche se fait avec {@code DIJKSTRA}. Le résultat est donc le même quel que soit l'algorithme.
+     */
+    public int getDistance(int depart, int arrivee, AlgorithmeDistance algorithme) {
+        int s = getPosition(depart);
+        int t = getPosition(arrivee);
+        if (s < 0 || t < 0) {
+            return Integer.MAX_VALUE;
+        }
+        return rechercher(s, t, algorithme).getDistance(t);
+    }
+
+    /**
+     * @return le calcul des plus courts chemins de la position {@code s} à la position {@code t} avec l'algorithme
+     * choisi ({@code DIJKSTRA} si le graphe n'est pas un graphe de plateau, voir {@link #estSurPlateau()})
+     */
+    public PlusCourtsChemins rechercher(int s, int t, AlgorithmeDistance algorithme) {
+        if (algorithme == AlgorithmeDistance.DIJKSTRA || !estSurPlateau()) {
+            return new PlusCourtsChemins(this, s, t);
+        }
+        int arrivee = indices[t];
+        int min = getSurcoutMin();
+        return new PlusCourtsChemins(this, null, new int[]{s}, t,
+                p -> Plateau.getDistanceHexagonale(indices[p], arrivee, largeurGrille) * min);
+    }
+
+    /**
+     * @return le nombre de tuiles des lignes paires de la grille hexagonale sur laquelle sont numérotés les sommets
+     * (celle du graphe ou du jeu d'origine)
+     */
+    public int getLargeurGrille() {
+        return largeurGrille;
+    }
+
+    /**
+     * @return true si et seulement si les numéros des sommets sont des indices de tuiles de la grille hexagonale de
+     * largeur {@link #getLargeurGrille()} et si chaque arête relie deux tuiles voisines sur cette grille (c'est le
+     * cas des graphes construits à partir d'un {@code Jeu}, ou d'un plateau généré dont on a donné la largeur). Sur un
+     * tel graphe, la distance hexagonale multipliée par le plus petit surcout ne surestime jamais la distance
+     * restante, ce qui garantit le résultat de {@link AlgorithmeDistance#A_ETOILE}. Le résultat est calculé une seule
+     * fois.
+     */
+    public boolean estSurPlateau() {
+        Boolean res = surPlateau;
+        if (res == null) {
+            res = largeurGrille > 0;
+            for (int p = 0; res && p < indices.length; p++) {
+                if (indices[p] < 0) {
+                    res = false;
+                }
+                for (int k = debuts[p]; res && k < debuts[p + 1]; k++) {
+                    if (Plateau.getDistanceHexagonale(indices[p], indices[cibles[k]], largeurGrille) > 1) {
+                        res = false;
+                    }
+                }
+            }
+            surPlateau = res;
+        }
+        return res;
+    }
+
+    /**
+     * @return le plus petit surcout d'un sommet (0 si le graphe est vide), calculé une seule fois
+     */
+    public int getSurcoutMin() {
+        Integer res = surcoutMin;
+        if (res == null) {
+            int min = surcouts.length == 0 ? 0 : Integer.MAX_VALUE;
+            for (int surcout : surcouts) {
+                min = Math.min(min, surcout);
+            }
+            res = min;
+            surcoutMin = res;
+        }
+        return res;
+    }
+
+    /**
+     * @return le surcout total minimal d'un parcours partant de l'un des sommets de numéros {@code departs} et arrivant
+     * au sommet de numéro {@code arrivee} (un seul parcours de Dijkstra, toutes les sources étant à distance 0),
+     * ou {@code Integer.MAX_VALUE} s'il n'y en a pas. Les numéros absents du graphe sont ignorés.
+     */
+    public int getDistance(int[] departs, int arrivee) {
+        int t = getPosition(arrivee);
+        int[] sources = getPositions(departs);
+        if (t < 0 || sources.length == 0) {
+            return Integer.MAX_VALUE;
+        }
+        return new PlusCourtsChemins(this, sources, t).getDistance(t);
+    }
+
+    /**
+     * @return pour chaque position, le surcout total minimal d'un parcours partant de l'un des sommets de numéros
+     * {@code departs} ({@code Integer.MAX_VALUE} si la position n'est pas atteignable).
+     * Les numéros absents du graphe sont ignorés.
+     */
+    public int[] getDistances(int[] departs) {
+        return new PlusCourtsChemins(this, getPositions(departs), -1).getDistances();
+    }
+
+    /**
+     * @return les positions des numéros donnés qui sont dans le graphe
+     */
+    private int[] getPositions(int[] numeros) {
+        int[] positions = new int[numeros.length];
+        int nb = 0;
+        for (int numero : numeros) {
+            int p = getPosition(numero);
+            if (p >= 0) {
+                positions[nb++] = p;
+            }
+        }
+        return Arrays.copyOf(positions, nb);
+    }
+
+    /**
+     * @return les numéros des sommets d'un plus court chemin de {@code depart} à {@code arrivee} (extrémités comprises),
+     * ou un tableau vide si l'un des sommets n'existe pas ou s'ils ne sont pas reliés
+     */
+    public int[] getChemin(int depart, int arrivee) {
+        int s = getPosition(depart);
+        int t = getPosition(arrivee);
+        if (s < 0 || t < 0) {
+            return new int[0];
+        }
+        return rechercher(s, t, AlgorithmeDistance.DIJKSTRA).getChemin(t);
+    }
+
+    /**
+     * @return une coloration gloutonne du graphe : la couleur (à partir de 1) de chaque position.
+     * Comme pour {@link Graphe#getColorationGloutonne()}, les sommets sont colorés par ordre décroissant
+     * des degrés, puis par numéro croissant.
+     */
+    public int[] getColorationGloutonne() {
+        int n = indices.length;
+        int dMax = degreMax();
+        // tri par paquets sur les degrés, stable sur les positions (donc sur les numéros)
+        int[] compte = new int[dMax + 2];
+        for (int p = 0; p < n; p++) {
+            compte[dMax - degre(p) + 1]++;
+        }
+        for (int d = 1; d < compte.length; d++) {
+            compte[d] += compte[d - 1];
+        }
+        int[] ordre = new int[n];
+        for (int p = 0; p < n; p++) {
+            ordre[compte[dMax - degre(p)]++] = p;
+        }
+
+        int[] couleurs = new int[n];
+        int[] marques = new int[dMax + 2];
+        for (int rang = 0; rang < n; rang++) {
+            int u = ordre[rang];
+            for (int k = debuts[u]; k < debuts[u + 1]; k++) {
+                int c = couleurs[cibles[k]];
+                if (c > 0 && c < marques.length) {
+                    marques[c] = rang + 1;
+                }
+            }
+            int c = 1;
+            while (marques[c] == rang + 1) {
+                c++;
+            }
+            couleurs[u] = c;
+        }
+        return couleurs;
+    }
+}
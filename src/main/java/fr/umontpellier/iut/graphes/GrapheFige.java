@@ -0,0 +1,243 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Instantané immuable du graphe d'un plateau : ses sommets, ses arêtes et les données de ses sommets (surcout,
+ * points de victoire, masque des joueurs ayant un rail) à un moment de la partie. Un instantané ne change jamais :
+ * il peut être lu depuis n'importe quel fil, sans verrou ni copie.
+ * <p>
+ * Pendant une partie, les arêtes du plateau ne changent pas et chaque action ne modifie les données que d'une tuile.
+ * Tous les instantanés d'une partie partagent donc la même topologie (un {@link GrapheCSR} dont les tableaux de
+ * voisins ne sont jamais recopiés), et les données des sommets sont rangées par blocs de {@code TAILLE_BLOC}
+ * positions : {@link #modifier(int, int, int, int)} ne recopie que le tableau des blocs et le bloc de la position
+ * modifiée, tous les autres blocs étant partagés avec l'instantané précédent.
+ */
+public final class GrapheFige {
+    /**
+     * Nombre de positions par bloc (une puissance de 2)
+     */
+    public static final int TAILLE_BLOC = 16;
+    private static final int DECALAGE = Integer.numberOfTrailingZeros(TAILLE_BLOC);
+    /**
+     * Nombre d'entiers par position dans un bloc : surcout, points de victoire, masque des joueurs
+     */
+    private static final int CHAMPS = 3;
+
+    private final GrapheCSR topologie;
+    /**
+     * Données des sommets : la position p est rangée dans {@code blocs[p / TAILLE_BLOC]}, à partir de la case
+     * {@code CHAMPS * (p % TAILLE_BLOC)}
+     */
+    private final int[][] blocs;
+    private final long version;
+    /**
+     * Représentation CSR de l'instantané, calculée à la première demande
+     */
+    private volatile GrapheCSR csr;
+
+    /**
+     * Construit le premier instantané (de version 0) d'un graphe
+     */
+    public GrapheFige(GrapheCSR g) {
+        topologie = g;
+        int n = g.getNbSommets();
+        blocs = new int[(n + TAILLE_BLOC - 1) >>> DECALAGE][];
+        for (int b = 0; b < blocs.length; b++) {
+            blocs[b] = new int[CHAMPS * TAILLE_BLOC];
+        }
+        for (int p = 0; p < n; p++) {
+            int[] bloc = blocs[p >>> DECALAGE];
+            int k = CHAMPS * (p & (TAILLE_BLOC - 1));
+            bloc[k] = g.getSurcout(p);
+            bloc[k + 1] = g.getNbPointsVictoire(p);
+            bloc[k + 2] = g.getMasqueJoueurs(p);
+        }
+        version = 0;
+        csr = g;
+    }
+
+    private GrapheFige(GrapheCSR topologie, int[][] blocs, long version) {
+        this.topologie = topologie;
+        this.blocs = blocs;
+        this.version = version;
+    }
+
+    /**
+     * @return un nouvel instantané, identique à celui-ci sauf pour les données du sommet de numéro {@code numero},
+     * ou cet instantané lui-même si le sommet n'est pas dans le graphe ou si ses données ne changent pas
+     */
+    public GrapheFige modifier(int numero, int surcout, int nbPointsVictoire, int masqueJoueurs) {
+        int p = topologie.getPosition(numero);
+        if (p < 0 || getSurcout(p) == surcout && getNbPointsVictoire(p) == nbPointsVictoire
+                && getMasqueJoueurs(p) == masqueJoueurs) {
+            return this;
+        }
+        int[][] nouveauxBlocs = blocs.clone();
+        int[] bloc = blocs[p >>> DECALAGE].clone();
+        int k = CHAMPS * (p & (TAILLE_BLOC - 1));
+        bloc[k] = surcout;
+        bloc[k + 1] = nbPointsVictoire;
+        bloc[k + 2] = masqueJoueurs;
+        nouveauxBlocs[p >>> DECALAGE] = bloc;
+        return new GrapheFige(topologie, nouveauxBlocs, version + 1);
+    }
+
+    /**
+     * @return le nombre de modifications depuis le premier instantané
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return true si et seulement si les données des positions {@code p} de cet instantané et de {@code autre} sont
+     * rangées dans le même bloc (qui n'a donc pas été recopié entre les deux)
+     */
+    public boolean partageBloc(GrapheFige autre, int p) {
+        return blocs[p >>> DECALAGE] == autre.blocs[p >>> DECALAGE];
+    }
+
+    public int getNbSommets() {
+        return topologie.getNbSommets();
+    }
+
+    public int getNbAretes() {
+        return topologie.getNbAretes();
+    }
+
+    /**
+     * @return la position du sommet de numéro {@code numero} ou -1 s'il n'appartient pas au graphe
+     */
+    public int getPosition(int numero) {
+        return topologie.getPosition(numero);
+    }
+
+    public int getIndice(int p) {
+        return topologie.getIndice(p);
+    }
+
+    public int degre(int p) {
+        return topologie.degre(p);
+    }
+
+    public int debutVoisins(int p) {
+        return topologie.debutVoisins(p);
+    }
+
+    public int finVoisins(int p) {
+        return topologie.finVoisins(p);
+    }
+
+    public int cible(int k) {
+        return topologie.cible(k);
+    }
+
+    public boolean estVoisin(int p, int q) {
+        return topologie.estVoisin(p, q);
+    }
+
+    public int getSurcout(int p) {
+        return blocs[p >>> DECALAGE][CHAMPS * (p & (TAILLE_BLOC - 1))];
+    }
+
+    public int getNbPointsVictoire(int p) {
+        return blocs[p >>> DECALAGE][CHAMPS * (p & (TAILLE_BLOC - 1)) + 1];
+    }
+
+    public int getMasqueJoueurs(int p) {
+        return blocs[p >>> DECALAGE][CHAMPS * (p & (TAILLE_BLOC - 1)) + 2];
+    }
+
+    public boolean aRail(int p, int joueur) {
+        return (getMasqueJoueurs(p) & (1 << joueur)) != 0;
+    }
+
+    /**
+     * @return la représentation CSR de l'instantané, pour les calculs de {@link GrapheCSR} (distances, connexité,
+     * coloration...). Elle partage les tableaux de voisins de la topologie ; seules les données des sommets sont
+     * recopiées, une seule fois par instantané.
+     */
+    public GrapheCSR getGrapheCSR() {
+        GrapheCSR res = csr;
+        if (res == null) {
+            int n = getNbSommets();
+            int[] surcouts = new int[n];
+            int[] nbPointsVictoire = new int[n];
+            int[] masquesJoueurs = new int[n];
+            for (int p = 0; p < n; p++) {
+                surcouts[p] = getSurcout(p);
+                nbPointsVictoire[p] = getNbPointsVictoire(p);
+                masquesJoueurs[p] = getMasqueJoueurs(p);
+            }
+            res = new GrapheCSR(topologie, surcouts, nbPointsVictoire, masquesJoueurs);
+            csr = res;
+        }
+        return res;
+    }
+
+    /**
+     * @return un nouveau {@link Graphe} (modifiable) ayant les sommets, les arêtes et les données de l'instantané
+     */
+    public Graphe versGraphe() {
+        return versGraphe(-1);
+    }
+
+    /**
+     * @return un nouveau {@link Graphe} (modifiable) induit par les sommets sur lesquels le joueur numéro
+     * {@code joueur} a un rail (tous les sommets si {@code joueur} vaut -1)
+     */
+    public Graphe versGraphe(int joueur) {
+        int n = getNbSommets();
+        Sommet[] sommets = new Sommet[n];
+        Graphe g = new Graphe();
+        g.setLargeurGrille(topologie.getLargeurGrille());
+        Sommet.SommetBuilder builder = new Sommet.SommetBuilder();
+        for (int p = 0; p < n; p++) {
+            if (joueur < 0 || aRail(p, joueur)) {
+                sommets[p] = builder.setIndice(getIndice(p)).setSurcout(getSurcout(p))
+                        .setNbPointsVictoire(getNbPointsVictoire(p)).setJoueurs(joueurs(getMasqueJoueurs(p)))
+                        .createSommet();
+                g.ajouterSommet(sommets[p]);
+            }
+        }
+        for (int p = 0; p < n; p++) {
+            if (sommets[p] != null) {
+                for (int k = debutVoisins(p); k < finVoisins(p); k++) {
+                    Sommet voisin = sommets[cible(k)];
+                    if (voisin != null) {
+                        sommets[p].ajouterVoisin(voisin);
+                    }
+                }
+            }
+        }
+        return g;
+    }
+
+    private static Set<Integer> joueurs(int masque) {
+        Set<Integer> joueurs = new HashSet<>();
+        for (int j = 0; j < Integer.SIZE; j++) {
+            if ((masque & (1 << j)) != 0) {
+                joueurs.add(j);
+            }
+        }
+        return joueurs;
+    }
+
+    /**
+     * @return true si et seulement si les deux instantanés, issus du même plateau, ont les mêmes données de sommets
+     */
+    public boolean memesDonnees(GrapheFige autre) {
+        if (getNbSommets() != autre.getNbSommets()) {
+            return false;
+        }
+        for (int b = 0; b < blocs.length; b++) {
+            if (blocs[b] != autre.blocs[b] && !Arrays.equals(blocs[b], autre.blocs[b])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,469 @@
+package fr.umontpellier.iut.graphes;
+
+import fr.umontpellier.iut.trains.Jeu;
+import fr.umontpellier.iut.trains.plateau.Plateau;
+import fr.umontpellier.iut.trains.plateau.Tuile;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Graphe implicite d'un plateau en grille hexagonale, disposé comme ceux de {@link Plateau} : les lignes paires ont
+ * {@code largeur} tuiles, les lignes impaires une de moins et sont décalées d'une demi-tuile vers la droite, et les
+ * tuiles sont numérotées ligne par ligne.
+ * <p>
+ * Aucune liste de voisins n'est stockée : les voisins d'une tuile sont calculés à partir de sa ligne et de sa
+ * colonne (au plus 6). Seules les exceptions à la grille complète sont conservées : les tuiles Mer, qui ne sont pas
+ * des sommets, et les arêtes supprimées (comme les appels à {@code supprimerVoisine} de {@link Plateau}), rangées
+ * dans un masque de bits indexé par (tuile, direction). Les données des sommets (surcout, points de victoire, masque
+ * des joueurs) sont rangées dans des tableaux indexés par numéro de tuile, si bien que la mémoire utilisée est
+ * proportionnelle au nombre de tuiles.
+ * Les sommets sont désignés par leur numéro de tuile, qui est aussi leur position au sens de {@link GrapheIndexe} :
+ * les plus courts chemins sont calculés par {@link PlusCourtsChemins}, guidé par la distance hexagonale.
+ */
+public class GrapheHexagonal implements GrapheIndexe {
+    /**
+     * Nombre maximal de voisins d'une tuile
+     */
+    public static final int DEGRE_MAX = 6;
+
+    private final int nbLignes;
+    private final int largeur;
+    private final int nbTuiles;
+    /**
+     * Tuiles Mer (qui ne sont pas des sommets du graphe)
+     */
+    private final BitSet mer;
+    /**
+     * Arêtes de la grille qui ne sont pas dans le graphe : le bit {@code DEGRE_MAX * i + d} est à 1 si l'arête entre
+     * la tuile {@code i} et sa voisine dans la direction {@code d} (voir {@link #voisinGrille(int, int, int)}) est
+     * supprimée. Chaque arête supprimée a ses deux bits à 1.
+     */
+    private final BitSet aretesSupprimees;
+    private int nbAretesSupprimees;
+    private final int[] surcouts;
+    /**
+     * Minorant du plus petit surcout d'une tuile (exact si {@code surcoutMinExact}), pour l'heuristique de A*
+     */
+    private int surcoutMin;
+    private boolean surcoutMinExact = true;
+    private final int[] nbPointsVictoire;
+    private final int[] masquesJoueurs;
+
+    /**
+     * Construit la grille complète de {@code nbLignes} lignes, dont les lignes paires ont {@code largeur} tuiles
+     * (sans tuile Mer ni arête supprimée, tous les surcouts et points de victoire étant nuls)
+     */
+    public GrapheHexagonal(int nbLignes, int largeur) {
+        if (nbLignes < 0 || largeur < 1) {
+            throw new IllegalArgumentException("Dimensions invalides : " + nbLignes + " x " + largeur);
+        }
+        this.nbLignes = nbLignes;
+        this.largeur = largeur;
+        nbTuiles = nbLignes / 2 * (2 * largeur - 1) + (nbLignes % 2 == 0 ? 0 : largeur);
+        mer = new BitSet();
+        aretesSupprimees = new BitSet();
+        surcouts = new int[nbTuiles];
+        nbPointsVictoire = new int[nbTuiles];
+        masquesJoueurs = new int[nbTuiles];
+    }
+
+    /**
+     * Construit le graphe implicite du plateau d'un jeu (sans les tuiles Mer). Le résultat a les mêmes sommets et
+     * les mêmes arêtes que {@code jeu.getGraphe()}.
+     *
+     * @throws IllegalArgumentException si les tuiles du jeu ne sont pas disposées en grille hexagonale de
+     *                                  {@code Plateau.NB_LIGNES} lignes et {@code Plateau.LARGEUR} colonnes
+     */
+    public GrapheHexagonal(Jeu jeu) {
+        this(Plateau.NB_LIGNES, Plateau.LARGEUR);
+        List<Tuile> tuiles = jeu.getTuiles();
+        if (tuiles.size() != nbTuiles) {
+            throw new IllegalArgumentException("Le plateau n'a pas " + nbTuiles + " tuiles");
+        }
+        for (int i = 0; i < nbTuiles; i++) {
+            Tuile tuile = tuiles.get(i);
+            if (tuile.estMer()) {
+                mer.set(i);
+            } else {
+                surcouts[i] = tuile.getSurcout();
+                nbPointsVictoire[i] = tuile.getNbPointsVictoire();
+                for (int j = 0; j < jeu.getJoueurs().size(); j++) {
+                    if (tuile.hasRail(jeu.getJoueurs().get(j))) {
+                        masquesJoueurs[i] |= 1 << j;
+                    }
+                }
+            }
+        }
+        surcoutMinExact = false;
+        for (int i = 0; i < nbTuiles; i++) {
+            Tuile tuile = tuiles.get(i);
+            if (!tuile.estMer()) {
+                for (int d = 0; d < DEGRE_MAX; d++) {
+                    int j = voisinGrille(getLigne(i), getColonne(i), d);
+                    if (j > i && !mer.get(j) && !tuile.getVoisines().contains(tuiles.get(j))) {
+                        supprimer(i, d, j);
+                    }
+                }
+            }
+        }
+        // toute voisine d'une tuile doit être l'une de ses voisines dans la grille
+        for (int i = 0; i < nbTuiles; i++) {
+            Tuile tuile = tuiles.get(i);
+            if (!tuile.estMer()
+                    && tuile.getVoisines().stream().filter(t -> !t.estMer()).count() != degre(i)) {
+                throw new IllegalArgumentException("La tuile " + i + " a une voisine hors de la grille");
+            }
+        }
+    }
+
+    public int getNbLignes() {
+        return nbLignes;
+    }
+
+    public int getLargeur() {
+        return largeur;
+    }
+
+    /**
+     * @return le nombre de tuiles de la grille, tuiles Mer comprises
+     */
+    public int getNbTuiles() {
+        return nbTuiles;
+    }
+
+    /**
+     * @return l'ordre du graphe (le nombre de tuiles qui ne sont pas des tuiles Mer)
+     */
+    public int getNbSommets() {
+        return nbTuiles - mer.cardinality();
+    }
+
+    /**
+     * @return true si et seulement si {@code i} est le numéro d'une tuile du graphe
+     */
+    public boolean contientSommet(int i) {
+        return i >= 0 && i < nbTuiles && !mer.get(i);
+    }
+
+    /**
+     * @return la ligne de la tuile {@code i}
+     */
+    public int getLigne(int i) {
+        return Plateau.getLigne(i, largeur);
+    }
+
+    /**
+     * @return la colonne de la tuile {@code i} dans sa ligne
+     */
+    public int getColonne(int i) {
+        return Plateau.getColonne(i, largeur);
+    }
+
+    /**
+     * @return le numéro de la tuile en ligne {@code ligne} et colonne {@code colonne}, ou -1 si elle est hors de la
+     * grille
+     */
+    public int getTuile(int ligne, int colonne) {
+        if (ligne < 0 || ligne >= nbLignes || colonne < 0 || colonne >= largeurLigne(ligne)) {
+            return -1;
+        }
+        return ligne / 2 * (2 * largeur - 1) + (ligne % 2 == 0 ? 0 : largeur) + colonne;
+    }
+
+    private int largeurLigne(int ligne) {
+        return ligne % 2 == 0 ? largeur : largeur - 1;
+    }
+
+    /**
+     * Fait de la tuile {@code i} une tuile Mer : elle n'est plus un sommet du graphe
+     *
+     * @return true si la tuile était un sommet du graphe
+     */
+    public boolean ajouterMer(int i) {
+        if (!contientSommet(i)) {
+            return false;
+        }
+        mer.set(i);
+        if (surcouts[i] == surcoutMin) {
+            surcoutMinExact = false;
+        }
+        return true;
+    }
+
+    /**
+     * Supprime l'arête entre les tuiles {@code i} et {@code j}
+     *
+     * @return true si l'arête était dans le graphe
+     */
+    public boolean supprimerArete(int i, int j) {
+        if (!estVoisin(i, j)) {
+            return false;
+        }
+        supprimer(i, direction(i, j), j);
+        return true;
+    }
+
+    /**
+     * Supprime l'arête entre la tuile {@code i} et sa voisine {@code j} dans la direction {@code d}
+     */
+    private void supprimer(int i, int d, int j) {
+        aretesSupprimees.set(DEGRE_MAX * i + d);
+        aretesSupprimees.set(DEGRE_MAX * j + DEGRE_MAX - 1 - d);
+        nbAretesSupprimees++;
+    }
+
+    /**
+     * @return le nombre d'arêtes de la grille qui ont été supprimées
+     */
+    public int getNbAretesSupprimees() {
+        return nbAretesSupprimees;
+    }
+
+    /**
+     * @return true si et seulement si les tuiles {@code i} et {@code j} sont deux sommets voisins du graphe
+     */
+    public boolean estVoisin(int i, int j) {
+        if (i == j || !contientSommet(i) || !contientSommet(j)) {
+            return false;
+        }
+        int d = direction(i, j);
+        return d >= 0 && !aretesSupprimees.get(DEGRE_MAX * i + d);
+    }
+
+    /**
+     * @return la direction de la tuile {@code j} depuis la tuile {@code i} si elles sont voisines dans la grille
+     * complète, -1 sinon
+     */
+    private int direction(int i, int j) {
+        if (Plateau.getDistanceHexagonale(i, j, largeur) == 1) {
+            int r = getLigne(i);
+            int c = getColonne(i);
+            for (int d = 0; d < DEGRE_MAX; d++) {
+                if (voisinGrille(r, c, d) == j) {
+                    return d;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Voisine, dans la grille complète (sans tenir compte des tuiles Mer ni des arêtes supprimées), de la tuile en
+     * ligne {@code r} et colonne {@code c}. Les directions 0 à 5 sont, dans l'ordre croissant des numéros : en haut à
+     * gauche, en haut à droite, à gauche, à droite, en bas à gauche et en bas à droite ; la direction opposée à
+     * {@code d} est {@code DEGRE_MAX - 1 - d}.
+     *
+     * @return le numéro de la voisine dans la direction {@code d}, ou -1 si elle est hors de la grille
+     */
+    private int voisinGrille(int r, int c, int d) {
+        // décalage de colonne des voisines des lignes adjacentes : (c - 1, c) depuis une ligne paire, (c, c + 1)
+        // depuis une ligne impaire
+        int decalage = r % 2 == 0 ? -1 : 0;
+        return switch (d) {
+            case 0 -> getTuile(r - 1, c + decalage);
+            case 1 -> getTuile(r - 1, c + decalage + 1);
+            case 2 -> getTuile(r, c - 1);
+            case 3 -> getTuile(r, c + 1);
+            case 4 -> getTuile(r + 1, c + decalage);
+            default -> getTuile(r + 1, c + decalage + 1);
+        };
+    }
+
+    /**
+     * Range dans {@code voisins} les numéros des voisins du sommet {@code i}, par ordre croissant
+     *
+     * @param voisins un tableau d'au moins {@code DEGRE_MAX} cases
+     * @return le nombre de voisins (0 si {@code i} n'est pas un sommet du graphe)
+     */
+    public int getVoisins(int i, int[] voisins) {
+        if (!contientSommet(i)) {
+            return 0;
+        }
+        int r = getLigne(i);
+        int c = getColonne(i);
+        int k = 0;
+        for (int d = 0; d < DEGRE_MAX; d++) {
+            int j = voisinGrille(r, c, d);
+            if (j >= 0 && !mer.get(j) && !aretesSupprimees.get(DEGRE_MAX * i + d)) {
+                voisins[k++] = j;
+            }
+        }
+        return k;
+    }
+
+    /**
+     * @return le nombre de positions, c'est-à-dire de tuiles (tuiles Mer comprises, qui n'ont pas de voisins)
+     */
+    public int getNbPositions() {
+        return nbTuiles;
+    }
+
+    /**
+     * @return le numéro de la tuile à la position {@code p}, c'est-à-dire {@code p}
+     */
+    public int getIndice(int p) {
+        return p;
+    }
+
+    public int debutVoisins(int p) {
+        return DEGRE_MAX * p;
+    }
+
+    public int finVoisins(int p) {
+        return DEGRE_MAX * (p + 1);
+    }
+
+    /**
+     * @return la voisine de la tuile {@code k / DEGRE_MAX} dans la direction {@code k % DEGRE_MAX}, ou -1 si ce
+     * n'est pas un sommet voisin
+     */
+    public int cible(int k) {
+        int i = k / DEGRE_MAX;
+        int j = voisinGrille(getLigne(i), getColonne(i), k % DEGRE_MAX);
+        return j >= 0 && !mer.get(j) && !aretesSupprimees.get(k) ? j : -1;
+    }
+
+    public int degre(int i) {
+        return getVoisins(i, new int[DEGRE_MAX]);
+    }
+
+    /**
+     * @return la taille du graphe
+     */
+    public int getNbAretes() {
+        int[] voisins = new int[DEGRE_MAX];
+        long somme = 0;
+        for (int i = 0; i < nbTuiles; i++) {
+            somme += getVoisins(i, voisins);
+        }
+        return (int) (somme / 2);
+    }
+
+    public int getSurcout(int i) {
+        return surcouts[i];
+    }
+
+    public void setSurcout(int i, int surcout) {
+        if (surcout < surcoutMin) {
+            surcoutMin = surcout;
+        } else if (surcouts[i] == surcoutMin && surcout > surcoutMin) {
+            // le minorant reste valable, mais n'est peut-être plus le minimum
+            surcoutMinExact = false;
+        }
+        surcouts[i] = surcout;
+    }
+
+    /**
+     * @return le plus petit surcout d'une tuile du graphe (0 s'il n'a aucun sommet), recalculé seulement si un
+     * surcout minimal a augmenté ou si sa tuile est devenue une tuile Mer
+     */
+    public int getSurcoutMin() {
+        if (!surcoutMinExact) {
+            int min = Integer.MAX_VALUE;
+            for (int i = mer.nextClearBit(0); i < nbTuiles; i = mer.nextClearBit(i + 1)) {
+                min = Math.min(min, surcouts[i]);
+            }
+            surcoutMin = min == Integer.MAX_VALUE ? 0 : min;
+            surcoutMinExact = true;
+        }
+        return surcoutMin;
+    }
+
+    public int getNbPointsVictoire(int i) {
+        return nbPointsVictoire[i];
+    }
+
+    public void setNbPointsVictoire(int i, int nb) {
+        nbPointsVictoire[i] = nb;
+    }
+
+    /**
+     * @return le masque des joueurs ayant un rail sur la tuile {@code i}
+     */
+    public int getMasqueJoueurs(int i) {
+        return masquesJoueurs[i];
+    }
+
+    public boolean aRail(int i, int joueur) {
+        return joueur >= 0 && joueur < Integer.SIZE && (masquesJoueurs[i] & (1 << joueur)) != 0;
+    }
+
+    public void ajouterRail(int i, int joueur) {
+        masquesJoueurs[i] |= 1 << joueur;
+    }
+
+    /**
+     * @return pour chaque tuile, le numéro (0..k-1) de sa classe de connexité, les classes étant numérotées dans
+     * l'ordre de leur plus petite tuile, ou -1 pour les tuiles Mer. Le calcul est un parcours en largeur avec une
+     * file dans un tableau d'entiers.
+     */
+    public int[] getEtiquettesConnexite() {
+        int[] etiquettes = new int[nbTuiles];
+        Arrays.fill(etiquettes, -1);
+        int[] file = new int[nbTuiles];
+        int[] voisins = new int[DEGRE_MAX];
+        int nbClasses = 0;
+        for (int i = 0; i < nbTuiles; i++) {
+            if (etiquettes[i] == -1 && !mer.get(i)) {
+                int tete = 0;
+                int queue = 0;
+                file[queue++] = i;
+                etiquettes[i] = nbClasses;
+                while (tete < queue) {
+                    int u = file[tete++];
+                    int nb = getVoisins(u, voisins);
+                    for (int k = 0; k < nb; k++) {
+                        int v = voisins[k];
+                        if (etiquettes[v] == -1) {
+                            etiquettes[v] = nbClasses;
+                            file[queue++] = v;
+                        }
+                    }
+                }
+                nbClasses++;
+            }
+        }
+        return etiquettes;
+    }
+
+    /**
+     * @return true si et seulement si le graphe est connexe
+     */
+    public boolean estConnexe() {
+        for (int etiquette : getEtiquettesConnexite()) {
+            if (etiquette > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return le surcout total minimal du parcours entre les tuiles {@code depart} et {@code arrivee} (la tuile de
+     * départ n'est pas comptée, comme dans {@link PlusCourtsChemins}), ou {@code Integer.MAX_VALUE} si l'une des
+     * tuiles n'est pas un sommet ou si elles ne sont pas reliées. Le calcul utilise {@link AlgorithmeDistance#A_ETOILE}.
+     */
+    public int getDistance(int depart, int arrivee) {
+        if (!contientSommet(depart) || !contientSommet(arrivee)) {
+            return Integer.MAX_VALUE;
+        }
+        return rechercher(depart, arrivee, AlgorithmeDistance.A_ETOILE).getDistance(arrivee);
+    }
+
+    /**
+     * @return le calcul des plus courts chemins de la tuile {@code depart} à la tuile {@code arrivee} (qui doivent
+     * être des sommets du graphe) avec l'algorithme choisi. Pour A*, l'heuristique est la distance hexagonale
+     * multipliée par le plus petit surcout : elle ne surestime jamais la distance restante, puisque chaque arête relie
+     * deux tuiles voisines de la grille.
+     */
+    public PlusCourtsChemins rechercher(int depart, int arrivee, AlgorithmeDistance algorithme) {
+        if (algorithme == AlgorithmeDistance.DIJKSTRA) {
+            return new PlusCourtsChemins(this, depart, arrivee);
+        }
+        int min = getSurcoutMin();
+        return new PlusCourtsChemins(this, null, new int[]{depart}, arrivee,
+                p -> Plateau.getDistanceHexagonale(p, arrivee, largeur) * min);
+    }
+}
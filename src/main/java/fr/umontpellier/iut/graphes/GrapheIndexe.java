@@ -0,0 +1,30 @@
+package fr.umontpellier.iut.graphes;
+
+/**
+ * Graphe dont les sommets sont désignés par des positions 0..n-1, vu comme le demande un parcours comme
+ * {@link PlusCourtsChemins} : les voisins de la position {@code p} sont les cibles des rangs
+ * {@code debutVoisins(p)..finVoisins(p)-1}. Une cible négative signifie qu'il n'y a pas de voisin à ce rang, ce qui
+ * permet à un graphe implicite comme {@link GrapheHexagonal} de réserver un rang par direction.
+ */
+public interface GrapheIndexe {
+    /**
+     * @return le nombre de positions (toutes ne sont pas forcément des sommets du graphe)
+     */
+    int getNbPositions();
+
+    /**
+     * @return le numéro du sommet à la position {@code p}
+     */
+    int getIndice(int p);
+
+    int getSurcout(int p);
+
+    int debutVoisins(int p);
+
+    int finVoisins(int p);
+
+    /**
+     * @return la position du voisin rangé au rang {@code k}, ou -1 s'il n'y en a pas
+     */
+    int cible(int k);
+}
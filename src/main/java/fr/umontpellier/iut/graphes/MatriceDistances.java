@@ -0,0 +1,129 @@
+package fr.umontpellier.iut.graphes;
+
+/**
+ * Table des distances entre tous les couples de sommets d'un graphe dont la topologie ne change pas et dont seuls
+ * les surcoûts des sommets évoluent (par exemple le plateau d'une partie, où poser un rail ou une gare augmente le
+ * surcoût d'une tuile).
+ * La table est calculée une fois (un parcours de Dijkstra par sommet) et rangée dans un tableau plat n×n ;
+ * une distance se lit ensuite en temps constant. Lorsque le surcoût d'un sommet x change, la table est réparée :
+ * <ul>
+ *     <li>si le surcoût diminue, chaque distance d(s, t) devient min(d(s, t), d(s, x) + d(x, t)) ;</li>
+ *     <li>s'il augmente, seules les lignes s pour lesquelles x est un sommet intermédiaire d'un plus court chemin
+ *     sont recalculées, les autres lignes n'ayant que leur distance vers x à corriger.</li>
+ * </ul>
+ * On utilise que d(x, t) ne dépend pas du surcoût de x (le sommet de départ n'est pas compté).
+ */
+public class MatriceDistances {
+    private final GrapheCSR g;
+    private final int n;
+    /**
+     * Surcoût courant de chaque position
+     */
+    private final int[] surcouts;
+    /**
+     * distances[s * n + t] est la distance de la position s à la position t ({@code Integer.MAX_VALUE} si t
+     * n'est pas atteignable depuis s)
+     */
+    private final int[] distances;
+
+    public MatriceDistances(GrapheCSR g) {
+        this.g = g;
+        n = g.getNbSommets();
+        surcouts = new int[n];
+        for (int p = 0; p < n; p++) {
+            surcouts[p] = g.getSurcout(p);
+        }
+        distances = new int[n * n];
+        for (int s = 0; s < n; s++) {
+            calculerLigne(s);
+        }
+    }
+
+    /**
+     * @return la distance du sommet de numéro {@code depart} au sommet de numéro {@code arrivee},
+     * ou {@code Integer.MAX_VALUE} si l'un des sommets n'existe pas ou s'ils ne sont pas reliés
+     */
+    public int getDistance(int depart, int arrivee) {
+        int s = g.getPosition(depart);
+        int t = g.getPosition(arrivee);
+        if (s < 0 || t < 0) {
+            return Integer.MAX_VALUE;
+        }
+        return distances[s * n + t];
+    }
+
+    /**
+     * @return le surcoût courant du sommet de numéro {@code numero} (pré-requis : le sommet existe)
+     */
+    public int getSurcout(int numero) {
+        return surcouts[g.getPosition(numero)];
+    }
+
+    /**
+     * Change le surcoût du sommet de numéro {@code numero} et répare la table
+     * (sans effet si le sommet n'existe pas ou si son surcoût est inchangé)
+     */
+    public void modifierSurcout(int numero, int surcout) {
+        int x = g.getPosition(numero);
+        if (x < 0 || surcout == surcouts[x]) {
+            return;
+        }
+        int delta = surcout - surcouts[x];
+        surcouts[x] = surcout;
+        if (delta < 0) {
+            diminuer(x, -delta);
+        } else {
+            augmenter(x, delta);
+        }
+    }
+
+    private void diminuer(int x, int delta) {
+        for (int s = 0; s < n; s++) {
+            int dsx = distances[s * n + x];
+            if (s == x || dsx == Integer.MAX_VALUE) {
+                continue;
+            }
+            dsx -= delta;
+            distances[s * n + x] = dsx;
+            for (int t = 0; t < n; t++) {
+                int dxt = distances[x * n + t];
+                if (dxt != Integer.MAX_VALUE && dsx + dxt < distances[s * n + t]) {
+                    distances[s * n + t] = dsx + dxt;
+                }
+            }
+        }
+    }
+
+    private void augmenter(int x, int delta) {
+        for (int s = 0; s < n; s++) {
+            int dsx = distances[s * n + x];
+            if (s == x || dsx == Integer.MAX_VALUE) {
+                continue;
+            }
+            if (estIntermediaire(s, x)) {
+                calculerLigne(s);
+            } else {
+                distances[s * n + x] = dsx + delta;
+            }
+        }
+    }
+
+    /**
+     * @return true si et seulement si x est un sommet intermédiaire d'un plus court chemin partant de s
+     */
+    private boolean estIntermediaire(int s, int x) {
+        int dsx = distances[s * n + x];
+        for (int t = 0; t < n; t++) {
+            int dxt = distances[x * n + t];
+            if (t != x && dxt != Integer.MAX_VALUE && dsx + dxt == distances[s * n + t]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void calculerLigne(int s) {
+        int[] ligne = new PlusCourtsChemins(g, surcouts, new int[]{s}, -1).getDistances();
+        System.arraycopy(ligne, 0, distances, s * n, n);
+    }
+}
@@ -0,0 +1,156 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Algorithme de Dijkstra sur un {@link GrapheIndexe} (un {@link GrapheCSR} ou un {@link GrapheHexagonal}), où le
+ * coût d'un parcours est la somme des surcoûts des sommets dans lesquels on entre (le sommet de départ n'est pas
+ * compté).
+ * Il peut y avoir plusieurs sources : elles sont toutes placées à distance 0 au départ, et un seul parcours donne
+ * la distance de l'ensemble des sources à chaque sommet.
+ * Les distances et les prédécesseurs sont rangés dans des tableaux d'entiers indexés par position, et la file de
+ * priorité est un {@link TasIndexe} : chaque sommet y figure au plus une fois et sa clé est diminuée en place.
+ * Si une cible est donnée, le calcul s'arrête dès qu'elle sort du tas : seules les distances des sommets déjà
+ * sortis (dont la cible) sont alors définitives.
+ * Avec une heuristique (algorithme A*), les sommets sortent du tas par ordre croissant de distance + estimation de
+ * la distance restante jusqu'à la cible, ce qui oriente la recherche vers la cible. Les résultats restent exacts
+ * si l'heuristique est monotone : estimation(u) <= surcout(v) + estimation(v) pour toute arête {u, v}, et
+ * estimation(cible) = 0.
+ */
+public class PlusCourtsChemins {
+    private final GrapheIndexe g;
+    /**
+     * Surcoût de chaque position
+     */
+    private final int[] surcouts;
+    private final int[] distances;
+    /**
+     * Position du prédécesseur de chaque sommet sur un plus court chemin (-1 pour la source et les sommets non atteints)
+     */
+    private final int[] predecesseurs;
+    /**
+     * definitifs[p] est vrai si la distance de p ne peut plus diminuer
+     */
+    private final boolean[] definitifs;
+    private int nbSommetsExplores;
+
+    /**
+     * Calcule les plus courts chemins depuis la position {@code source}, jusqu'à la position {@code cible}
+     * (ou vers tous les sommets si {@code cible} vaut -1)
+     */
+    public PlusCourtsChemins(GrapheIndexe g, int source, int cible) {
+        this(g, new int[]{source}, cible);
+    }
+
+    /**
+     * Calcule les plus courts chemins depuis l'ensemble des positions {@code sources}, jusqu'à la position
+     * {@code cible} (ou vers tous les sommets si {@code cible} vaut -1)
+     */
+    public PlusCourtsChemins(GrapheIndexe g, int[] sources, int cible) {
+        this(g, null, sources, cible);
+    }
+
+    /**
+     * Comme {@link #PlusCourtsChemins(GrapheIndexe, int[], int)}, mais avec les surcoûts donnés (par position) à la place
+     * de ceux du graphe (si {@code surcouts} est null, ceux du graphe sont utilisés)
+     */
+    public PlusCourtsChemins(GrapheIndexe g, int[] surcouts, int[] sources, int cible) {
+        this(g, surcouts, sources, cible, null);
+    }
+
+    /**
+     * Comme {@link #PlusCourtsChemins(GrapheIndexe, int[], int[], int)}, guidé par une heuristique monotone qui associe
+     * à chaque position une estimation (par défaut) de sa distance à la cible (algorithme A*)
+     */
+    public PlusCourtsChemins(GrapheIndexe g, int[] surcouts, int[] sources, int cible, IntUnaryOperator heuristique) {
+        this.g = g;
+        int n = g.getNbPositions();
+        if (surcouts == null) {
+            surcouts = new int[n];
+            for (int p = 0; p < n; p++) {
+                surcouts[p] = g.getSurcout(p);
+            }
+        }
+        this.surcouts = surcouts;
+        distances = new int[n];
+        predecesseurs = new int[n];
+        definitifs = new boolean[n];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        Arrays.fill(predecesseurs, -1);
+        calculer(sources, cible, heuristique == null ? p -> 0 : heuristique);
+    }
+
+    private void calculer(int[] sources, int cible, IntUnaryOperator heuristique) {
+        TasIndexe tas = new TasIndexe(g.getNbPositions());
+        for (int source : sources) {
+            distances[source] = 0;
+            tas.insererOuDiminuer(source, heuristique.applyAsInt(source));
+        }
+        while (!tas.estVide()) {
+            int u = tas.extraireMin();
+            definitifs[u] = true;
+            nbSommetsExplores++;
+            if (u == cible) {
+                return;
+            }
+            int du = distances[u];
+            for (int k = g.debutVoisins(u); k < g.finVoisins(u); k++) {
+                int v = g.cible(k);
+                if (v >= 0 && !definitifs[v]) {
+                    int dv = du + surcouts[v];
+                    if (dv < distances[v]) {
+                        distances[v] = dv;
+                        predecesseurs[v] = u;
+                        tas.insererOuDiminuer(v, dv + heuristique.applyAsInt(v));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return la distance des sources à la position {@code p}, ou {@code Integer.MAX_VALUE} si elle n'est pas connue
+     * (sommet non relié aux sources, ou non atteint avant l'arrêt sur la cible)
+     */
+    public int getDistance(int p) {
+        return definitifs[p] ? distances[p] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return les numéros des sommets d'un plus court chemin d'une source à la position {@code p} (extrémités comprises),
+     * ou un tableau vide si la distance n'est pas connue
+     */
+    public int[] getChemin(int p) {
+        if (!definitifs[p]) {
+            return new int[0];
+        }
+        int longueur = 0;
+        for (int q = p; q != -1; q = predecesseurs[q]) {
+            longueur++;
+        }
+        int[] chemin = new int[longueur];
+        for (int q = p; q != -1; q = predecesseurs[q]) {
+            chemin[--longueur] = g.getIndice(q);
+        }
+        return chemin;
+    }
+
+    /**
+     * @return le nombre de sommets sortis du tas pendant le calcul
+     */
+    public int getNbSommetsExplores() {
+        return nbSommetsExplores;
+    }
+
+    /**
+     * @return les distances des sources à chaque position ({@code Integer.MAX_VALUE} si elle n'est pas connue)
+     */
+    public int[] getDistances() {
+        int[] res = new int[distances.length];
+        for (int p = 0; p < res.length; p++) {
+            res[p] = getDistance(p);
+        }
+        return res;
+    }
+}
@@ -0,0 +1,364 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Recherche de cliques par l'algorithme de Bron–Kerbosch avec pivot, sur un {@link GrapheCSR}.
+ * Les sommets sont d'abord rangés selon un ordre de dégénérescence (on retire à chaque étape un sommet de degré
+ * minimum) : chaque clique est alors trouvée depuis son sommet le plus à gauche v, en ne cherchant que parmi les
+ * voisins de v, dont ceux situés après v (au plus d, la dégénérescence du graphe) sont les candidats.
+ * Pour chaque sommet v, l'adjacence entre les candidats (au plus d), et entre les candidats et les voisins de v situés
+ * avant lui (les exclus), est rangée dans des masques de bits (un {@code long[]} par sommet local) : les
+ * intersections d'ensembles de la récursion se font mot par mot, sans allouer d'objet par candidat. Ces masques sont
+ * remplis en testant l'adjacence dans le {@link GrapheCSR}, sans parcourir les voisins des voisins de v : le travail
+ * pour v est en O(d * degré(v) * log(degré maximum)), même si v a des voisins de très grand degré.
+ * Les calculs s'arrêtent dès que la réponse est connue.
+ */
+public class RechercheCliques {
+    private final GrapheCSR g;
+    /**
+     * Positions des sommets dans l'ordre de dégénérescence
+     */
+    private final int[] ordre;
+    /**
+     * Rang de chaque position dans {@code ordre}
+     */
+    private final int[] rangs;
+    private final int degenerescence;
+
+    public RechercheCliques(GrapheCSR g) {
+        this.g = g;
+        int n = g.getNbSommets();
+        ordre = new int[n];
+        rangs = new int[n];
+        degenerescence = calculerOrdre();
+    }
+
+    /**
+     * Ordre de dégénérescence par l'algorithme de Batagelj et Zaversnik : les sommets sont rangés par degré courant
+     * dans {@code ordre}, et retirer un voisin d'un sommet le fait passer au début de la zone de son degré, qui
+     * recule d'une case (temps linéaire)
+     *
+     * @return la dégénérescence du graphe
+     */
+    private int calculerOrdre() {
+        int n = g.getNbSommets();
+        int[] degres = new int[n];
+        // debuts[d] : première case de la zone des sommets de degré courant d
+        int[] debuts = new int[g.degreMax() + 1];
+        for (int p = 0; p < n; p++) {
+            degres[p] = g.degre(p);
+            debuts[degres[p]]++;
+        }
+        int debut = 0;
+        for (int d = 0; d < debuts.length; d++) {
+            int nb = debuts[d];
+            debuts[d] = debut;
+            debut += nb;
+        }
+        int[] places = new int[n];
+        int[] remplissage = debuts.clone();
+        for (int p = 0; p < n; p++) {
+            places[p] = remplissage[degres[p]]++;
+            ordre[places[p]] = p;
+        }
+        int res = 0;
+        for (int i = 0; i < n; i++) {
+            int v = ordre[i];
+            rangs[v] = i;
+            res = Math.max(res, degres[v]);
+            for (int k = g.debutVoisins(v); k < g.finVoisins(v); k++) {
+                int u = g.cible(k);
+                if (degres[u] > degres[v]) {
+                    int du = degres[u];
+                    int premier = debuts[du];
+                    int w = ordre[premier];
+                    if (u != w) {
+                        ordre[places[u]] = w;
+                        places[w] = places[u];
+                        ordre[premier] = u;
+                        places[u] = premier;
+                    }
+                    debuts[du]++;
+                    degres[u]--;
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * @return la dégénérescence du graphe (plus grand degré minimum d'un sous-graphe) ; une clique a au plus
+     * dégénérescence + 1 sommets
+     */
+    public int getDegenerescence() {
+        return degenerescence;
+    }
+
+    /**
+     * @return true si et seulement si le graphe possède une clique d'au moins {@code k} sommets
+     */
+    public boolean possedeClique(int k) {
+        if (k <= 0) {
+            return true;
+        }
+        if (k > degenerescence + 1) {
+            return false;
+        }
+        Recherche recherche = new Recherche(k, true, null);
+        recherche.lancer();
+        return recherche.meilleure != null;
+    }
+
+    /**
+     * @return les numéros des sommets d'une clique de taille maximum (vide si le graphe est vide)
+     */
+    public int[] getCliqueMaximum() {
+        Recherche recherche = new Recherche(1, false, null);
+        recherche.lancer();
+        return recherche.meilleure == null ? new int[0] : recherche.meilleure;
+    }
+
+    /**
+     * Énumère les cliques maximales (au sens de l'inclusion) du graphe, chacune une seule fois, en passant à
+     * {@code action} les numéros de leurs sommets. L'énumération s'arrête dès que {@code action} renvoie false.
+     */
+    public void pourChaqueCliqueMaximale(Predicate<int[]> action) {
+        new Recherche(1, false, action).lancer();
+    }
+
+    /**
+     * Une recherche (les données propres à un appel, pour que plusieurs recherches puissent avoir lieu en même temps)
+     */
+    private class Recherche {
+        /**
+         * Taille minimum des cliques recherchées (augmente avec la meilleure clique trouvée pour la clique maximum)
+         */
+        private int seuil;
+        /**
+         * true si l'on s'arrête à la première clique d'au moins {@code seuil} sommets
+         */
+        private final boolean arretAuSeuil;
+        /**
+         * Action appliquée à chaque clique maximale (null si l'on cherche une clique maximum)
+         */
+        private final Predicate<int[]> action;
+        private int[] meilleure;
+        private boolean arret;
+        /**
+         * Candidats du sommet de départ courant (positions de ses voisins de rang supérieur) et adjacence entre eux
+         * (masques indexés localement)
+         */
+        private int[] locaux;
+        private long[][] adjacence;
+        /**
+         * Pour chaque candidat, ses voisins parmi les exclus du sommet de départ (voisins de rang inférieur), et pour
+         * chaque exclu, ses voisins parmi les candidats
+         */
+        private long[][] adjacenceExclus;
+        private long[][] exclusVersCandidats;
+        private final int[] clique = new int[degenerescence + 1];
+
+        Recherche(int seuil, boolean arretAuSeuil, Predicate<int[]> action) {
+            this.seuil = seuil;
+            this.arretAuSeuil = arretAuSeuil;
+            this.action = action;
+        }
+
+        void lancer() {
+            for (int i = 0; i < ordre.length && !arret; i++) {
+                int v = ordre[i];
+                if (g.degre(v) + 1 >= seuil) {
+                    explorerDepuis(v);
+                }
+            }
+        }
+
+        /**
+         * Cherche les cliques dont v est le sommet de plus petit rang
+         */
+        private void explorerDepuis(int v) {
+            int d = g.degre(v);
+            int nbCandidats = 0;
+            for (int k = g.debutVoisins(v); k < g.finVoisins(v); k++) {
+                if (rangs[g.cible(k)] > rangs[v]) {
+                    nbCandidats++;
+                }
+            }
+            if (nbCandidats + 1 < seuil) {
+                return;
+            }
+            locaux = new int[nbCandidats];
+            int[] exclusLocaux = new int[d - nbCandidats];
+            int a = 0;
+            int x = 0;
+            for (int k = g.debutVoisins(v); k < g.finVoisins(v); k++) {
+                int u = g.cible(k);
+                if (rangs[u] > rangs[v]) {
+                    locaux[a++] = u;
+                } else {
+                    exclusLocaux[x++] = u;
+                }
+            }
+            int mots = (nbCandidats + 63) >>> 6;
+            int motsExclus = (exclusLocaux.length + 63) >>> 6;
+            adjacence = new long[nbCandidats][mots];
+            adjacenceExclus = new long[nbCandidats][motsExclus];
+            // les exclus sans voisin parmi les candidats (souvent presque tous) partagent une ligne vide
+            long[] aucun = new long[mots];
+            exclusVersCandidats = new long[exclusLocaux.length][];
+            Arrays.fill(exclusVersCandidats, aucun);
+            for (a = 0; a < nbCandidats; a++) {
+                for (int b = a + 1; b < nbCandidats; b++) {
+                    if (g.estVoisin(locaux[a], locaux[b])) {
+                        adjacence[a][b >>> 6] |= 1L << b;
+                        adjacence[b][a >>> 6] |= 1L << a;
+                    }
+                }
+                for (x = 0; x < exclusLocaux.length; x++) {
+                    if (g.estVoisin(locaux[a], exclusLocaux[x])) {
+                        adjacenceExclus[a][x >>> 6] |= 1L << x;
+                        if (exclusVersCandidats[x] == aucun) {
+                            exclusVersCandidats[x] = new long[mots];
+                        }
+                        exclusVersCandidats[x][a >>> 6] |= 1L << a;
+                    }
+                }
+            }
+            long[] candidats = new long[mots];
+            for (a = 0; a < nbCandidats; a++) {
+                candidats[a >>> 6] |= 1L << a;
+            }
+            long[] exclus = new long[motsExclus];
+            for (x = 0; x < exclusLocaux.length; x++) {
+                exclus[x >>> 6] |= 1L << x;
+            }
+            clique[0] = v;
+            explorer(1, candidats, new long[mots], exclus);
+        }
+
+        /**
+         * Bron–Kerbosch avec pivot : {@code clique[0..taille-1]} est la clique courante (le sommet de départ puis des
+         * indices locaux), {@code candidats} les sommets qui peuvent l'agrandir, {@code traites} (parmi les candidats
+         * du sommet de départ) et {@code exclus} (parmi ses voisins de rang inférieur) ceux qui le pourraient mais dont
+         * les cliques ont déjà été énumérées
+         */
+        private void explorer(int taille, long[] candidats, long[] traites, long[] exclus) {
+            int nbCandidats = cardinal(candidats);
+            if (taille + nbCandidats < seuil) {
+                return;
+            }
+            if (nbCandidats == 0) {
+                if (action != null) {
+                    if (estVide(traites) && estVide(exclus) && !action.test(numeros(taille))) {
+                        arret = true;
+                    }
+                } else if (taille >= seuil) {
+                    meilleure = numeros(taille);
+                    seuil = taille + 1;
+                    arret = arretAuSeuil;
+                }
+                return;
+            }
+            if (arretAuSeuil && taille >= seuil) {
+                meilleure = numeros(taille);
+                arret = true;
+                return;
+            }
+            // pivot : le sommet de candidats ∪ traites ∪ exclus qui a le plus de voisins parmi les candidats
+            long[] voisinsPivot = null;
+            int maxVoisins = -1;
+            for (long[] ensemble : new long[][]{candidats, traites}) {
+                for (int u = suivant(ensemble, 0); u >= 0; u = suivant(ensemble, u + 1)) {
+                    int c = cardinalInter(candidats, adjacence[u]);
+                    if (c > maxVoisins) {
+                        maxVoisins = c;
+                        voisinsPivot = adjacence[u];
+                    }
+                }
+            }
+            for (int x = suivant(exclus, 0); x >= 0 && maxVoisins < nbCandidats; x = suivant(exclus, x + 1)) {
+                int c = cardinalInter(candidats, exclusVersCandidats[x]);
+                if (c > maxVoisins) {
+                    maxVoisins = c;
+                    voisinsPivot = exclusVersCandidats[x];
+                }
+            }
+            long[] aTraiter = candidats.clone();
+            for (int w = 0; w < aTraiter.length; w++) {
+                aTraiter[w] &= ~voisinsPivot[w];
+            }
+            for (int u = suivant(aTraiter, 0); u >= 0 && !arret; u = suivant(aTraiter, u + 1)) {
+                clique[taille] = u;
+                long[] nouveauxCandidats = new long[candidats.length];
+                long[] nouveauxTraites = new long[traites.length];
+                for (int w = 0; w < candidats.length; w++) {
+                    nouveauxCandidats[w] = candidats[w] & adjacence[u][w];
+                    nouveauxTraites[w] = traites[w] & adjacence[u][w];
+                }
+                long[] nouveauxExclus = new long[exclus.length];
+                for (int w = 0; w < exclus.length; w++) {
+                    nouveauxExclus[w] = exclus[w] & adjacenceExclus[u][w];
+                }
+                explorer(taille + 1, nouveauxCandidats, nouveauxTraites, nouveauxExclus);
+                candidats[u >>> 6] &= ~(1L << u);
+                traites[u >>> 6] |= 1L << u;
+            }
+        }
+
+        private int[] numeros(int taille) {
+            int[] res = new int[taille];
+            res[0] = g.getIndice(clique[0]);
+            for (int i = 1; i < taille; i++) {
+                res[i] = g.getIndice(locaux[clique[i]]);
+            }
+            return res;
+        }
+    }
+
+    private static int cardinal(long[] ensemble) {
+        int c = 0;
+        for (long mot : ensemble) {
+            c += Long.bitCount(mot);
+        }
+        return c;
+    }
+
+    private static int cardinalInter(long[] a, long[] b) {
+        int c = 0;
+        for (int w = 0; w < a.length; w++) {
+            c += Long.bitCount(a[w] & b[w]);
+        }
+        return c;
+    }
+
+    private static boolean estVide(long[] ensemble) {
+        for (long mot : ensemble) {
+            if (mot != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return le plus petit élément de {@code ensemble} supérieur ou égal à {@code depuis}, ou -1 s'il n'y en a pas
+     */
+    private static int suivant(long[] ensemble, int depuis) {
+        int w = depuis >>> 6;
+        if (w >= ensemble.length) {
+            return -1;
+        }
+        long mot = ensemble[w] & (-1L << (depuis & 63));
+        while (true) {
+            if (mot != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(mot);
+            }
+            if (++w == ensemble.length) {
+                return -1;
+            }
+            mot = ensemble[w];
+        }
+    }
+}
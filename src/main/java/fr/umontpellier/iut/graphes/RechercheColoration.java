@@ -0,0 +1,293 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+
+/**
+ * Coloration propre des sommets d'un {@link GrapheCSR}, les couleurs étant numérotées à partir de 1.
+ * <p>
+ * L'heuristique DSatur colore à chaque étape le sommet non coloré dont les voisins portent le plus de couleurs
+ * différentes (sa saturation ; à égalité, le plus haut degré puis le plus petit numéro), avec la plus petite couleur
+ * libre. Les sommets non colorés sont rangés dans un {@link TasIndexe} dont la clé ne fait que diminuer quand la
+ * saturation augmente : la coloration se fait en O((n + m) log n).
+ * <p>
+ * La coloration optimale part de la coloration DSatur et de la taille ω d'une clique maximum (voir
+ * {@link RechercheCliques}), qui minore le nombre de couleurs. Chaque classe de connexité colorée avec plus de ω
+ * couleurs est reprise par séparation et évaluation : les sommets sont colorés dans l'ordre DSatur, chacun avec
+ * une couleur déjà utilisée sans conflit ou une nouvelle couleur, tant que le nombre de couleurs reste inférieur à
+ * celui de la meilleure coloration connue. L'adjacence et les classes de couleur sont rangées dans des masques de
+ * bits ({@code long[]}) : un conflit entre un sommet et une classe se teste mot par mot.
+ * La recherche s'arrête quand ω couleurs sont atteintes, quand l'arbre de recherche est épuisé (la coloration est
+ * alors optimale) ou quand le délai accordé est dépassé (on garde la meilleure coloration trouvée).
+ */
+public class RechercheColoration {
+    /**
+     * Nombre de sommets au-delà duquel une classe de connexité garde sa coloration DSatur
+     */
+    public static final int TAILLE_MAX_EXACTE = 512;
+    /**
+     * Nombre de nœuds de l'arbre de recherche entre deux consultations de l'horloge
+     */
+    private static final int PERIODE_HORLOGE = 256;
+
+    private final GrapheCSR g;
+    private final int[] couleurs;
+    private final int nbCouleurs;
+    private final boolean optimale;
+
+    /**
+     * Calcule une coloration de {@code g} utilisant le moins de couleurs possible, en s'accordant au plus
+     * {@code delaiMillis} millisecondes pour la recherche exacte
+     */
+    public RechercheColoration(GrapheCSR g, long delaiMillis) {
+        this.g = g;
+        long echeance = System.nanoTime() + delaiMillis * 1_000_000;
+        couleurs = getColorationDSatur(g);
+        int n = g.getNbSommets();
+        int omega = new RechercheCliques(g).getCliqueMaximum().length;
+        int[] etiquettes = g.getEtiquettesConnexite();
+        int nbClasses = 0;
+        for (int p = 0; p < n; p++) {
+            nbClasses = Math.max(nbClasses, etiquettes[p] + 1);
+        }
+        // sommets de chaque classe, rangés par position croissante
+        int[] tailles = new int[nbClasses + 1];
+        for (int p = 0; p < n; p++) {
+            tailles[etiquettes[p] + 1]++;
+        }
+        for (int c = 0; c < nbClasses; c++) {
+            tailles[c + 1] += tailles[c];
+        }
+        int[] debuts = tailles.clone();
+        int[] membres = new int[n];
+        for (int p = 0; p < n; p++) {
+            membres[debuts[etiquettes[p]]++] = p;
+        }
+        // indice de chaque position dans sa classe
+        int[] locaux = new int[n];
+        for (int c = 0; c < nbClasses; c++) {
+            for (int i = tailles[c]; i < tailles[c + 1]; i++) {
+                locaux[membres[i]] = i - tailles[c];
+            }
+        }
+        boolean prouvee = true;
+        int max = 0;
+        for (int c = 0; c < nbClasses; c++) {
+            int[] classe = Arrays.copyOfRange(membres, tailles[c], tailles[c + 1]);
+            int nb = 0;
+            for (int p : classe) {
+                nb = Math.max(nb, couleurs[p]);
+            }
+            if (nb > omega) {
+                if (classe.length <= TAILLE_MAX_EXACTE) {
+                    Recherche recherche = new Recherche(classe, locaux, nb, omega, echeance);
+                    recherche.lancer();
+                    if (recherche.solution != null) {
+                        nb = recherche.meilleur;
+                        for (int i = 0; i < classe.length; i++) {
+                            couleurs[classe[i]] = recherche.solution[i] + 1;
+                        }
+                    }
+                    prouvee &= !recherche.interrompue;
+                } else {
+                    prouvee = false;
+                }
+            }
+            max = Math.max(max, nb);
+        }
+        nbCouleurs = max;
+        optimale = prouvee;
+    }
+
+    /**
+     * @return la couleur (à partir de 1) de chaque position
+     */
+    public int[] getCouleurs() {
+        return couleurs.clone();
+    }
+
+    public int getNbCouleurs() {
+        return nbCouleurs;
+    }
+
+    /**
+     * @return true si le nombre de couleurs est prouvé minimum (le nombre chromatique du graphe), false si la
+     * recherche a été interrompue par le délai ou si une classe de connexité était trop grande
+     */
+    public boolean estOptimale() {
+        return optimale;
+    }
+
+    /**
+     * @return la coloration DSatur de {@code g} : la couleur (à partir de 1) de chaque position
+     */
+    public static int[] getColorationDSatur(GrapheCSR g) {
+        int n = g.getNbSommets();
+        int dMax = g.degreMax();
+        int[] couleurs = new int[n];
+        // couleursVoisines[p] : couleurs (jusqu'à dMax + 1) déjà portées par un voisin de p
+        long[][] couleursVoisines = new long[n][(dMax + 2 + 63) >>> 6];
+        int[] saturations = new int[n];
+        TasIndexe tas = new TasIndexe(n);
+        for (int p = 0; p < n; p++) {
+            tas.insererOuDiminuer(p, cle(0, g.degre(p), dMax));
+        }
+        while (!tas.estVide()) {
+            int u = tas.extraireMin();
+            long[] interdites = couleursVoisines[u];
+            int c = 1;
+            while ((interdites[c >>> 6] >>> (c & 63) & 1) != 0) {
+                c++;
+            }
+            couleurs[u] = c;
+            for (int k = g.debutVoisins(u); k < g.finVoisins(u); k++) {
+                int v = g.cible(k);
+                long[] voisines = couleursVoisines[v];
+                if (couleurs[v] == 0 && (voisines[c >>> 6] >>> (c & 63) & 1) == 0) {
+                    voisines[c >>> 6] |= 1L << c;
+                    saturations[v]++;
+                    tas.insererOuDiminuer(v, cle(saturations[v], g.degre(v), dMax));
+                }
+            }
+        }
+        return couleurs;
+    }
+
+    /**
+     * @return la clé d'un sommet dans le tas DSatur : la plus grande saturation, puis le plus grand degré, sort
+     * en premier
+     */
+    private static int cle(int saturation, int degre, int dMax) {
+        return -(saturation * (dMax + 1) + degre);
+    }
+
+    /**
+     * Séparation et évaluation sur une classe de connexité (les données propres à un appel)
+     */
+    private class Recherche {
+        private final int m;
+        private final int[] degres;
+        private final long[][] adjacence;
+        /**
+         * Sommets (indices locaux) de chaque couleur utilisée
+         */
+        private final long[][] classes;
+        private final long[] nonColores;
+        private final int[] couleursLocales;
+        private final int minimum;
+        private final long echeance;
+        private int meilleur;
+        private int[] solution;
+        private boolean interrompue;
+        private int nbNoeuds;
+
+        /**
+         * @param classe   positions des sommets de la classe de connexité, par ordre croissant
+         * @param locaux   indice de chaque position dans sa classe
+         * @param meilleur nombre de couleurs de la meilleure coloration connue
+         * @param minimum  nombre de couleurs en dessous duquel il est inutile de chercher
+         */
+        Recherche(int[] classe, int[] locaux, int meilleur, int minimum, long echeance) {
+            m = classe.length;
+            this.meilleur = meilleur;
+            this.minimum = minimum;
+            this.echeance = echeance;
+            int mots = (m + 63) >>> 6;
+            degres = new int[m];
+            adjacence = new long[m][mots];
+            for (int i = 0; i < m; i++) {
+                int p = classe[i];
+                degres[i] = g.degre(p);
+                for (int k = g.debutVoisins(p); k < g.finVoisins(p); k++) {
+                    int j = locaux[g.cible(k)];
+                    adjacence[i][j >>> 6] |= 1L << j;
+                }
+            }
+            classes = new long[meilleur][mots];
+            nonColores = new long[mots];
+            for (int i = 0; i < m; i++) {
+                nonColores[i >>> 6] |= 1L << i;
+            }
+            couleursLocales = new int[m];
+        }
+
+        void lancer() {
+            explorer(0, 0);
+        }
+
+        private void explorer(int nbColores, int nbUtilisees) {
+            if (nbUtilisees >= meilleur || meilleur <= minimum) {
+                return;
+            }
+            if (nbColores == m) {
+                meilleur = nbUtilisees;
+                solution = couleursLocales.clone();
+                return;
+            }
+            if (++nbNoeuds == PERIODE_HORLOGE) {
+                nbNoeuds = 0;
+                if (System.nanoTime() - echeance > 0) {
+                    interrompue = true;
+                }
+            }
+            if (interrompue) {
+                return;
+            }
+            int u = choisirSommet(nbUtilisees);
+            nonColores[u >>> 6] &= ~(1L << u);
+            for (int c = 0; c < nbUtilisees && !interrompue; c++) {
+                if (!intersecte(adjacence[u], classes[c])) {
+                    colorer(u, c);
+                    explorer(nbColores + 1, nbUtilisees);
+                    classes[c][u >>> 6] &= ~(1L << u);
+                }
+            }
+            if (nbUtilisees + 1 < meilleur && !interrompue) {
+                colorer(u, nbUtilisees);
+                explorer(nbColores + 1, nbUtilisees + 1);
+                classes[nbUtilisees][u >>> 6] &= ~(1L << u);
+            }
+            nonColores[u >>> 6] |= 1L << u;
+        }
+
+        private void colorer(int u, int c) {
+            classes[c][u >>> 6] |= 1L << u;
+            couleursLocales[u] = c;
+        }
+
+        /**
+         * @return le sommet non coloré de plus grande saturation (à égalité, de plus haut degré puis de plus petit
+         * indice)
+         */
+        private int choisirSommet(int nbUtilisees) {
+            int choix = -1;
+            int saturationChoix = -1;
+            for (int w = 0; w < nonColores.length; w++) {
+                long mot = nonColores[w];
+                while (mot != 0) {
+                    int u = (w << 6) + Long.numberOfTrailingZeros(mot);
+                    mot &= mot - 1;
+                    int saturation = 0;
+                    for (int c = 0; c < nbUtilisees; c++) {
+                        if (intersecte(adjacence[u], classes[c])) {
+                            saturation++;
+                        }
+                    }
+                    if (saturation > saturationChoix || saturation == saturationChoix && degres[u] > degres[choix]) {
+                        choix = u;
+                        saturationChoix = saturation;
+                    }
+                }
+            }
+            return choix;
+        }
+    }
+
+    private static boolean intersecte(long[] a, long[] b) {
+        for (int w = 0; w < a.length; w++) {
+            if ((a[w] & b[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,126 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Recherche des isthmes (ponts) et des points d'articulation d'un graphe par l'algorithme de Tarjan :
+ * un seul parcours en profondeur, itératif, calcule pour chaque sommet son rang de visite et le plus petit rang
+ * atteignable depuis son sous-arbre (valeur {@code bas}). Le tout est linéaire en la taille du graphe.
+ * <ul>
+ *     <li>l'arête {u, v} (v fils de u) est un isthme si et seulement si {@code bas[v] > rang[u]} ;</li>
+ *     <li>u (non racine) est un point d'articulation si et seulement s'il a un fils v avec {@code bas[v] >= rang[u]} ;</li>
+ *     <li>une racine est un point d'articulation si et seulement si elle a au moins deux fils.</li>
+ * </ul>
+ */
+public class RechercheIsthmes {
+    private final GrapheCSR g;
+    /**
+     * Isthmes trouvés, sous forme de couples de numéros de sommets
+     */
+    private final List<int[]> isthmes = new ArrayList<>();
+    private final boolean[] articulation;
+
+    /**
+     * Calcule tous les isthmes et tous les points d'articulation de {@code g}.
+     */
+    public RechercheIsthmes(GrapheCSR g) {
+        this.g = g;
+        articulation = new boolean[g.getNbSommets()];
+        parcourir(false);
+    }
+
+    private RechercheIsthmes(GrapheCSR g, boolean arretAuPremierIsthme) {
+        this.g = g;
+        articulation = new boolean[g.getNbSommets()];
+        parcourir(arretAuPremierIsthme);
+    }
+
+    /**
+     * @return true si et seulement si {@code g} possède un isthme (le parcours s'arrête au premier trouvé)
+     */
+    public static boolean possedeUnIsthme(GrapheCSR g) {
+        return !new RechercheIsthmes(g, true).isthmes.isEmpty();
+    }
+
+    /**
+     * @return les isthmes du graphe, chacun sous forme d'un couple de numéros de sommets
+     */
+    public List<int[]> getIsthmes() {
+        return isthmes;
+    }
+
+    /**
+     * @return les numéros des points d'articulation du graphe, par ordre croissant
+     */
+    public int[] getPointsArticulation() {
+        int[] res = new int[g.getNbSommets()];
+        int nb = 0;
+        for (int p = 0; p < articulation.length; p++) {
+            if (articulation[p]) {
+                res[nb++] = g.getIndice(p);
+            }
+        }
+        return Arrays.copyOf(res, nb);
+    }
+
+    private void parcourir(boolean arretAuPremierIsthme) {
+        int n = g.getNbSommets();
+        int[] rang = new int[n];
+        int[] bas = new int[n];
+        int[] parent = new int[n];
+        // prochain rang à examiner dans la liste des voisins de chaque sommet de la pile
+        int[] prochain = new int[n];
+        int[] pile = new int[n];
+        Arrays.fill(rang, -1);
+        int compteur = 0;
+
+        for (int racine = 0; racine < n; racine++) {
+            if (rang[racine] != -1) {
+                continue;
+            }
+            int nbFilsRacine = 0;
+            int sommetPile = 0;
+            pile[sommetPile++] = racine;
+            parent[racine] = -1;
+            rang[racine] = bas[racine] = compteur++;
+            prochain[racine] = g.debutVoisins(racine);
+
+            while (sommetPile > 0) {
+                int u = pile[sommetPile - 1];
+                if (prochain[u] < g.finVoisins(u)) {
+                    int v = g.cible(prochain[u]++);
+                    if (rang[v] == -1) {
+                        parent[v] = u;
+                        rang[v] = bas[v] = compteur++;
+                        prochain[v] = g.debutVoisins(v);
+                        pile[sommetPile++] = v;
+                        if (u == racine) {
+                            nbFilsRacine++;
+                        }
+                    } else if (v != parent[u]) {
+                        bas[u] = Math.min(bas[u], rang[v]);
+                    }
+                } else {
+                    // u est terminé : on remonte sa valeur bas vers son parent
+                    sommetPile--;
+                    int p = parent[u];
+                    if (p >= 0) {
+                        bas[p] = Math.min(bas[p], bas[u]);
+                        if (bas[u] > rang[p]) {
+                            isthmes.add(new int[]{g.getIndice(p), g.getIndice(u)});
+                            if (arretAuPremierIsthme) {
+                                return;
+                            }
+                        }
+                        if (p != racine && bas[u] >= rang[p]) {
+                            articulation[p] = true;
+                        }
+                    }
+                }
+            }
+            articulation[racine] = nbFilsRacine >= 2;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Recherche des plongements d'un graphe motif dans un graphe hôte (deux {@link GrapheCSR}) : un plongement associe
+ * à chaque sommet du motif un sommet distinct de l'hôte, de sorte que toute arête du motif soit envoyée sur une arête
+ * de l'hôte. L'hôte possède un sous-graphe isomorphe au motif si et seulement s'il existe un plongement.
+ * <p>
+ * La recherche suit le principe de VF2 : les sommets du motif sont appariés un par un dans un ordre fixé à l'avance,
+ * et chaque appariement partiel est prolongé par un parcours en profondeur (itératif) avec retour arrière. L'ordre
+ * (comme dans VF2++) prend d'abord le sommet du motif de plus haut degré, puis à chaque étape celui qui a le plus de
+ * voisins déjà ordonnés (à égalité, le plus haut degré) : les contraintes les plus fortes sont testées le plus tôt.
+ * Un sommet qui a un voisin déjà apparié n'a pour candidats que les voisins de l'image de ce voisin ; un candidat c
+ * pour le sommet u est retenu si
+ * <ul>
+ *     <li>c n'est pas déjà l'image d'un autre sommet et deg(c) >= deg(u) ;</li>
+ *     <li>les images de tous les voisins de u déjà appariés sont voisines de c ;</li>
+ *     <li>c a au moins autant de voisins libres que u a de voisins non encore appariés.</li>
+ * </ul>
+ * Avant toute recherche, on vérifie que l'hôte a au moins autant de sommets et d'arêtes que le motif et que la suite
+ * décroissante des degrés du motif est dominée terme à terme par celle de l'hôte.
+ */
+public class RecherchePlongements {
+    /**
+     * Nombre de candidats examinés entre deux consultations de la demande d'annulation
+     */
+    private static final int PERIODE_ANNULATION = 1024;
+
+    private final GrapheCSR motif;
+    private final GrapheCSR hote;
+    /**
+     * Positions du motif dans l'ordre d'appariement
+     */
+    private final int[] ordre;
+    /**
+     * Pour chaque rang, position du motif d'un voisin déjà ordonné (-1 si le sommet commence une nouvelle classe de
+     * connexité du motif)
+     */
+    private final int[] parents;
+    /**
+     * Pour chaque rang, positions du motif des voisins déjà ordonnés
+     */
+    private final int[][] voisinsOrdonnes;
+    private final boolean possible;
+
+    public RecherchePlongements(GrapheCSR motif, GrapheCSR hote) {
+        this.motif = motif;
+        this.hote = hote;
+        int n = motif.getNbSommets();
+        ordre = new int[n];
+        parents = new int[n];
+        voisinsOrdonnes = new int[n][];
+        possible = n <= hote.getNbSommets() && motif.getNbAretes() <= hote.getNbAretes() && degresDomines();
+        if (possible) {
+            calculerOrdre();
+        }
+    }
+
+    /**
+     * @return true si et seulement si, une fois triés par ordre décroissant, les degrés du motif sont inférieurs ou
+     * égaux terme à terme à ceux de l'hôte
+     */
+    private boolean degresDomines() {
+        int[] degresMotif = degresTries(motif);
+        int[] degresHote = degresTries(hote);
+        for (int i = 0; i < degresMotif.length; i++) {
+            if (degresMotif[degresMotif.length - 1 - i] > degresHote[degresHote.length - 1 - i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] degresTries(GrapheCSR g) {
+        int[] degres = new int[g.getNbSommets()];
+        for (int p = 0; p < degres.length; p++) {
+            degres[p] = g.degre(p);
+        }
+        Arrays.sort(degres);
+        return degres;
+    }
+
+    private void calculerOrdre() {
+        int n = motif.getNbSommets();
+        int[] rangs = new int[n];
+        Arrays.fill(rangs, -1);
+        // connexions[p] : nombre de voisins de p déjà ordonnés
+        int[] connexions = new int[n];
+        for (int i = 0; i < n; i++) {
+            int choix = -1;
+            for (int p = 0; p < n; p++) {
+                if (rangs[p] < 0 && (choix < 0 || connexions[p] > connexions[choix]
+                        || connexions[p] == connexions[choix] && motif.degre(p) > motif.degre(choix))) {
+                    choix = p;
+                }
+            }
+            ordre[i] = choix;
+            rangs[choix] = i;
+            voisinsOrdonnes[i] = new int[connexions[choix]];
+            parents[i] = -1;
+            int k = 0;
+            for (int a = motif.debutVoisins(choix); a < motif.finVoisins(choix); a++) {
+                int q = motif.cible(a);
+                if (rangs[q] >= 0) {
+                    voisinsOrdonnes[i][k++] = q;
+                    // les candidats du rang i seront les voisins de l'image du voisin ordonné de plus haut degré
+                    if (parents[i] < 0 || motif.degre(q) > motif.degre(parents[i])) {
+                        parents[i] = q;
+                    }
+                } else {
+                    connexions[q]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true si et seulement si le motif se plonge dans l'hôte
+     */
+    public boolean existe() {
+        return existe(() -> false);
+    }
+
+    /**
+     * Comme {@link #existe()}, en consultant régulièrement {@code annulation} pendant la recherche
+     *
+     * @throws CancellationException si {@code annulation} a renvoyé true avant que la réponse soit connue
+     */
+    public boolean existe(BooleanSupplier annulation) {
+        boolean[] trouve = {false};
+        pourChaquePlongement(image -> {
+            trouve[0] = true;
+            return false;
+        }, annulation);
+        return trouve[0];
+    }
+
+    /**
+     * @return le nombre de plongements du motif dans l'hôte
+     */
+    public long compterPlongements() {
+        long[] nb = {0};
+        pourChaquePlongement(image -> {
+            nb[0]++;
+            return true;
+        });
+        return nb[0];
+    }
+
+    /**
+     * Énumère les plongements du motif dans l'hôte, chacun une seule fois, en passant à {@code action} un tableau
+     * qui donne pour chaque position du motif (les sommets du motif rangés par numéro croissant) le numéro de son
+     * image dans l'hôte. L'énumération s'arrête dès que {@code action} renvoie false.
+     */
+    public void pourChaquePlongement(Predicate<int[]> action) {
+        pourChaquePlongement(action, () -> false);
+    }
+
+    /**
+     * Comme {@link #pourChaquePlongement(Predicate)}, en consultant régulièrement {@code annulation}
+     *
+     * @throws CancellationException si {@code annulation} a renvoyé true avant la fin de l'énumération
+     */
+    public void pourChaquePlongement(Predicate<int[]> action, BooleanSupplier annulation) {
+        if (!possible) {
+            return;
+        }
+        int n = motif.getNbSommets();
+        if (n == 0) {
+            action.test(new int[0]);
+            return;
+        }
+        // images[p] : position dans l'hôte de l'image de la position p du motif (-1 si p n'est pas apparié)
+        int[] images = new int[n];
+        Arrays.fill(images, -1);
+        boolean[] utilises = new boolean[hote.getNbSommets()];
+        // curseurs[i] et fins[i] : prochain candidat à examiner pour le rang i et borne de la plage de candidats
+        int[] curseurs = new int[n];
+        int[] fins = new int[n];
+        int nbExamines = 0;
+        int i = 0;
+        initialiserCandidats(0, images, curseurs, fins);
+        while (i >= 0) {
+            int u = ordre[i];
+            if (images[u] >= 0) {
+                utilises[images[u]] = false;
+                images[u] = -1;
+            }
+            int c = -1;
+            while (c < 0 && curseurs[i] < fins[i]) {
+                int candidat = parents[i] < 0 ? curseurs[i] : hote.cible(curseurs[i]);
+                curseurs[i]++;
+                if (++nbExamines == PERIODE_ANNULATION) {
+                    nbExamines = 0;
+                    if (annulation.getAsBoolean()) {
+                        throw new CancellationException("Recherche de plongements annulée");
+                    }
+                }
+                if (estFaisable(i, candidat, images, utilises)) {
+                    c = candidat;
+                }
+            }
+            if (c < 0) {
+                i--;
+            } else {
+                images[u] = c;
+                utilises[c] = true;
+                if (i == n - 1) {
+                    if (!action.test(numeros(images))) {
+                        return;
+                    }
+                } else {
+                    i++;
+                    initialiserCandidats(i, images, curseurs, fins);
+                }
+            }
+        }
+    }
+
+    private void initialiserCandidats(int i, int[] images, int[] curseurs, int[] fins) {
+        if (parents[i] < 0) {
+            curseurs[i] = 0;
+            fins[i] = hote.getNbSommets();
+        } else {
+            int image = images[parents[i]];
+            curseurs[i] = hote.debutVoisins(image);
+            fins[i] = hote.finVoisins(image);
+        }
+    }
+
+    /**
+     * @return true si la position {@code c} de l'hôte peut être l'image du sommet de rang {@code i} du motif
+     */
+    private boolean estFaisable(int i, int c, int[] images, boolean[] utilises) {
+        int u = ordre[i];
+        if (utilises[c] || hote.degre(c) < motif.degre(u)) {
+            return false;
+        }
+        for (int w : voisinsOrdonnes[i]) {
+            if (!hote.estVoisin(images[w], c)) {
+                return false;
+            }
+        }
+        int libresMotif = motif.degre(u) - voisinsOrdonnes[i].length;
+        if (libresMotif == 0) {
+            return true;
+        }
+        int libresHote = 0;
+        for (int a = hote.debutVoisins(c); a < hote.finVoisins(c) && libresHote < libresMotif; a++) {
+            if (!utilises[hote.cible(a)]) {
+                libresHote++;
+            }
+        }
+        return libresHote >= libresMotif;
+    }
+
+    private int[] numeros(int[] images) {
+        int[] res = new int[images.length];
+        for (int p = 0; p < images.length; p++) {
+            res[p] = hote.getIndice(images[p]);
+        }
+        return res;
+    }
+}
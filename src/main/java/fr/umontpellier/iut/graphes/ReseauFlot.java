@@ -0,0 +1,225 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+
+/**
+ * Réseau de flot à capacités entières sur les nœuds 0..n-1, rangé dans des tableaux d'entiers (listes d'arcs
+ * chaînées). Chaque arc est stocké avec son arc retour : l'arc {@code k} et l'arc {@code k ^ 1} sont l'un le retour
+ * de l'autre.
+ * Le flot maximum est calculé par l'algorithme de Dinic : on construit le graphe de niveaux par un parcours en
+ * largeur, puis on y pousse un flot bloquant par des parcours en profondeur (itératifs) qui n'examinent chaque arc
+ * qu'une fois par phase. Avec des capacités unitaires sur les nœuds (découpage des sommets), le temps est en
+ * O(m √n).
+ */
+public class ReseauFlot {
+    /**
+     * Capacité considérée comme infinie
+     */
+    public static final int INFINI = Integer.MAX_VALUE / 2;
+
+    private final int n;
+    /**
+     * Premier arc sortant de chaque nœud (-1 s'il n'y en a pas)
+     */
+    private final int[] premiers;
+    private int[] suivants;
+    private int[] cibles;
+    private int[] capacites;
+    /**
+     * Capacités initiales, pour pouvoir réinitialiser le réseau
+     */
+    private int[] capacitesInitiales;
+    private int nbArcs;
+    private final int[] niveaux;
+    /**
+     * Prochain arc à examiner pour chaque nœud pendant une phase
+     */
+    private final int[] courants;
+
+    public ReseauFlot(int n) {
+        this.n = n;
+        premiers = new int[n];
+        Arrays.fill(premiers, -1);
+        suivants = new int[16];
+        cibles = new int[16];
+        capacites = new int[16];
+        capacitesInitiales = new int[16];
+        niveaux = new int[n];
+        courants = new int[n];
+    }
+
+    public int getNbNoeuds() {
+        return n;
+    }
+
+    /**
+     * Ajoute l'arc u -> v de capacité {@code capacite} (et son arc retour, de capacité 0)
+     *
+     * @return le numéro de l'arc ajouté
+     */
+    public int ajouterArc(int u, int v, int capacite) {
+        return ajouterArcs(u, v, capacite, 0);
+    }
+
+    /**
+     * Ajoute les arcs u -> v et v -> u, tous deux de capacité {@code capacite}
+     *
+     * @return le numéro de l'arc u -> v
+     */
+    public int ajouterArete(int u, int v, int capacite) {
+        return ajouterArcs(u, v, capacite, capacite);
+    }
+
+    private int ajouterArcs(int u, int v, int capacite, int capaciteRetour) {
+        if (nbArcs + 2 > cibles.length) {
+            int taille = 2 * cibles.length;
+            suivants = Arrays.copyOf(suivants, taille);
+            cibles = Arrays.copyOf(cibles, taille);
+            capacites = Arrays.copyOf(capacites, taille);
+            capacitesInitiales = Arrays.copyOf(capacitesInitiales, taille);
+        }
+        int k = nbArcs;
+        chainer(k, u, v, capacite);
+        chainer(k + 1, v, u, capaciteRetour);
+        nbArcs += 2;
+        return k;
+    }
+
+    private void chainer(int k, int u, int v, int capacite) {
+        cibles[k] = v;
+        capacites[k] = capacite;
+        capacitesInitiales[k] = capacite;
+        suivants[k] = premiers[u];
+        premiers[u] = k;
+    }
+
+    /**
+     * @return le flot qui traverse l'arc {@code k}
+     */
+    public int getFlot(int k) {
+        return capacitesInitiales[k] - capacites[k];
+    }
+
+    /**
+     * Remet toutes les capacités à leur valeur initiale (flot nul)
+     */
+    public void reinitialiser() {
+        System.arraycopy(capacitesInitiales, 0, capacites, 0, nbArcs);
+    }
+
+    /**
+     * Calcule un flot maximum de {@code source} à {@code puits}, en partant du flot courant
+     *
+     * @return la valeur du flot ajouté
+     */
+    public int flotMaximum(int source, int puits) {
+        return flotMaximum(source, puits, INFINI);
+    }
+
+    /**
+     * Comme {@link #flotMaximum(int, int)}, mais s'arrête dès que le flot ajouté atteint {@code limite}
+     */
+    public int flotMaximum(int source, int puits, int limite) {
+        int flot = 0;
+        int[] pile = new int[n];
+        while (flot < limite && calculerNiveaux(source, puits)) {
+            System.arraycopy(premiers, 0, courants, 0, n);
+            int pousse;
+            while (flot < limite && (pousse = pousserChemin(source, puits, limite - flot, pile)) > 0) {
+                flot += pousse;
+            }
+        }
+        return flot;
+    }
+
+    /**
+     * Parcours en largeur du graphe résiduel depuis la source
+     *
+     * @return true si et seulement si le puits est atteignable
+     */
+    private boolean calculerNiveaux(int source, int puits) {
+        Arrays.fill(niveaux, -1);
+        int[] file = new int[n];
+        int debut = 0;
+        int fin = 0;
+        niveaux[source] = 0;
+        file[fin++] = source;
+        while (debut < fin) {
+            int u = file[debut++];
+            for (int k = premiers[u]; k != -1; k = suivants[k]) {
+                int v = cibles[k];
+                if (capacites[k] > 0 && niveaux[v] < 0) {
+                    niveaux[v] = niveaux[u] + 1;
+                    file[fin++] = v;
+                }
+            }
+        }
+        return niveaux[puits] >= 0;
+    }
+
+    /**
+     * Cherche dans le graphe de niveaux un chemin de la source au puits (en avançant les arcs courants au fil des
+     * impasses) et y pousse le plus de flot possible, au plus {@code maximum}
+     *
+     * @param pile tableau de travail où sont rangés les arcs du chemin courant
+     * @return le flot poussé (0 s'il n'y a plus de chemin dans cette phase)
+     */
+    private int pousserChemin(int source, int puits, int maximum, int[] pile) {
+        int taille = 0;
+        int u = source;
+        while (true) {
+            if (u == puits) {
+                int pousse = maximum;
+                for (int i = 0; i < taille; i++) {
+                    pousse = Math.min(pousse, capacites[pile[i]]);
+                }
+                for (int i = 0; i < taille; i++) {
+                    capacites[pile[i]] -= pousse;
+                    capacites[pile[i] ^ 1] += pousse;
+                }
+                return pousse;
+            }
+            int k = courants[u];
+            while (k != -1 && (capacites[k] == 0 || niveaux[cibles[k]] != niveaux[u] + 1)) {
+                k = suivants[k];
+            }
+            courants[u] = k;
+            if (k != -1) {
+                pile[taille++] = k;
+                u = cibles[k];
+            } else {
+                // impasse : on ne repassera plus par u dans cette phase, on recule d'un arc
+                niveaux[u] = -1;
+                if (taille == 0) {
+                    return 0;
+                }
+                k = pile[--taille];
+                u = cibles[k ^ 1];
+                courants[u] = suivants[k];
+            }
+        }
+    }
+
+    /**
+     * @return pour chaque nœud, true s'il est atteignable depuis {@code source} dans le graphe résiduel (après un
+     * calcul de flot maximum, ces nœuds forment le côté source d'une coupe minimum)
+     */
+    public boolean[] getCoteSource(int source) {
+        boolean[] atteints = new boolean[n];
+        int[] file = new int[n];
+        int debut = 0;
+        int fin = 0;
+        atteints[source] = true;
+        file[fin++] = source;
+        while (debut < fin) {
+            int u = file[debut++];
+            for (int k = premiers[u]; k != -1; k = suivants[k]) {
+                if (capacites[k] > 0 && !atteints[cibles[k]]) {
+                    atteints[cibles[k]] = true;
+                    file[fin++] = cibles[k];
+                }
+            }
+        }
+        return atteints;
+    }
+}
@@ -0,0 +1,147 @@
+package fr.umontpellier.iut.graphes;
+
+/**
+ * Séquences de degrés : reconnaissance des séquences graphiques (celles qui sont la suite des degrés d'un graphe
+ * simple) et construction d'un graphe réalisant une telle séquence, en temps linéaire sur des tableaux d'entiers.
+ */
+public class SequenceDegres {
+
+    private SequenceDegres() {
+    }
+
+    /**
+     * Test d'Erdős–Gallai : une séquence d1 >= ... >= dn de somme paire est graphique si et seulement si, pour tout
+     * k, d1 + ... + dk <= k(k - 1) + min(d(k+1), k) + ... + min(dn, k).
+     * Les degrés sont triés par dénombrement, et le membre de droite se calcule pour chaque k en temps constant :
+     * les indices i > k tels que di >= k sont les indices k+1..j où j est le nombre de degrés supérieurs ou égaux
+     * à k, et les suivants contribuent pour la somme de leurs degrés. Le test se fait en O(n).
+     *
+     * @param degres une séquence d'entiers, dans un ordre quelconque
+     * @return true si et seulement si {@code degres} est la séquence des degrés d'un graphe simple
+     */
+    public static boolean estGraphique(int[] degres) {
+        int n = degres.length;
+        long total = 0;
+        for (int d : degres) {
+            if (d < 0 || d >= n) {
+                return false;
+            }
+            total += d;
+        }
+        if (total % 2 != 0) {
+            return false;
+        }
+        int[] tries = trierDecroissant(degres);
+        // sommes[k] : somme des k plus grands degrés
+        long[] sommes = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            sommes[i + 1] = sommes[i] + tries[i];
+        }
+        int j = n;
+        for (int k = 1; k <= n; k++) {
+            // j : nombre de degrés supérieurs ou égaux à k
+            while (j > 0 && tries[j - 1] < k) {
+                j--;
+            }
+            long droite = (long) k * (k - 1);
+            if (j > k) {
+                droite += (long) k * (j - k) + total - sommes[j];
+            } else {
+                droite += total - sommes[k];
+            }
+            if (sommes[k] > droite) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return les éléments de {@code degres} (tous compris entre 0 et {@code degres.length - 1}) triés par ordre
+     * décroissant
+     */
+    private static int[] trierDecroissant(int[] degres) {
+        int n = degres.length;
+        int[] compte = new int[n + 1];
+        for (int d : degres) {
+            compte[d]++;
+        }
+        int[] tries = new int[n];
+        int i = 0;
+        for (int d = n - 1; d >= 0; d--) {
+            for (int c = 0; c < compte[d]; c++) {
+                tries[i++] = d;
+            }
+        }
+        return tries;
+    }
+
+    /**
+     * Algorithme de Havel–Hakimi : on relie le sommet de plus grand degré résiduel aux sommets suivants de plus grands
+     * degrés résiduels, puis on recommence sans lui. Les sommets restants sont rangés par degré résiduel croissant
+     * dans un tableau découpé en zones de même degré ; décrémenter un degré revient à échanger le sommet avec le
+     * premier de sa zone et à avancer le début de cette zone, en temps constant. La construction se fait en
+     * O(n + m).
+     *
+     * @param degres une séquence graphique
+     * @return les arêtes d'un graphe simple sur les sommets 0..n-1 dont le sommet i a pour degré {@code degres[i]} :
+     * l'arête numéro e relie {@code res[2e]} et {@code res[2e + 1]}
+     * @throws IllegalArgumentException si la séquence n'est pas graphique
+     */
+    public static int[] realiser(int[] degres) {
+        if (!estGraphique(degres)) {
+            throw new IllegalArgumentException("La séquence n'est pas graphique");
+        }
+        int n = degres.length;
+        long total = 0;
+        for (int d : degres) {
+            total += d;
+        }
+        int[] aretes = new int[(int) total];
+        int nbAretes = 0;
+        int[] residuels = degres.clone();
+        // ordre : sommets restants par degré résiduel croissant ; debuts[d] : première case de la zone de degré d
+        int[] debuts = new int[n + 1];
+        for (int d : residuels) {
+            debuts[d]++;
+        }
+        int debut = 0;
+        for (int d = 0; d <= n; d++) {
+            int nb = debuts[d];
+            debuts[d] = debut;
+            debut += nb;
+        }
+        int[] ordre = new int[n];
+        int[] places = new int[n];
+        int[] remplissage = debuts.clone();
+        for (int v = 0; v < n; v++) {
+            places[v] = remplissage[residuels[v]]++;
+            ordre[places[v]] = v;
+        }
+        int[] cibles = new int[n];
+        for (int fin = n; fin > 0; fin--) {
+            int v = ordre[fin - 1];
+            int d = residuels[v];
+            residuels[v] = 0;
+            // les d sommets restants de plus grands degrés résiduels sont les d dernières cases avant v
+            for (int i = 0; i < d; i++) {
+                cibles[i] = ordre[fin - 2 - i];
+            }
+            for (int i = 0; i < d; i++) {
+                int u = cibles[i];
+                aretes[nbAretes++] = v;
+                aretes[nbAretes++] = u;
+                int du = residuels[u];
+                int premier = debuts[du];
+                int w = ordre[premier];
+                ordre[places[u]] = w;
+                places[w] = places[u];
+                ordre[premier] = u;
+                places[u] = premier;
+                debuts[du]++;
+                residuels[u]--;
+            }
+        }
+        return aretes;
+    }
+}
@@ -3,7 +3,12 @@ package fr.umontpellier.iut.graphes;
 import fr.umontpellier.iut.trains.Jeu;
 import fr.umontpellier.iut.trains.plateau.Tuile;
 
+import java.lang.ref.WeakReference;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
@@ -19,21 +24,39 @@ public class Sommet {
     /**
      * Coût de pose d'un rail sur la tuile correspondante.
      */
-    private final int surcout;
+    private int surcout;
     /**
      * Nombre de points de victoire que rapporte la tuile si un joueur a un rail dessus
      */
     private int nbPointsVictoire;
     /**
-     * Ensemble des joueurs ayant un rail sur la tuile.
+     * Ensemble des joueurs ayant un rail sur la tuile. Comme les voisins, ses modifications sont signalées aux
+     * graphes contenant le sommet.
      */
     private Set<Integer> joueurs;
     /**
      * Ensemble des sommets voisins.
      */
     private Set<Sommet> voisins;
+    /**
+     * Compteurs de modifications des graphes contenant ce sommet (null si aucun graphe ne l'a contenu). Ils sont
+     * incrémentés à chaque modification de l'ensemble des voisins ou des données du sommet, même si elle ne passe pas
+     * par un graphe. Les références sont faibles : un graphe abandonné sans que le sommet en ait été retiré est
+     * oublié dès que son compteur a été récupéré par le ramasse-miettes.
+     */
+    private List<WeakReference<Graphe.Compteur>> graphes;
+    /**
+     * Taille de {@code graphes} à partir de laquelle les compteurs récupérés sont retirés lors d'un ajout. Elle est
+     * doublée à chaque nettoyage, si bien que le coût des nettoyages reste proportionnel au nombre d'ajouts.
+     */
+    private int seuilNettoyage = 8;
 
-    public static SommetBuilder sommetBuilder = new SommetBuilder();
+    /**
+     * Builder partagé. Les valeurs qu'on lui donne restent fixées pour les sommets suivants, mais elles sont propres
+     * à chaque fil : deux fils qui l'utilisent en même temps ne mélangent pas leurs sommets. Pour créer un sommet
+     * sans données, {@link #creerSommet(int)} ne dépend d'aucun état partagé.
+     */
+    public static final SommetBuilder sommetBuilder = new SommetBuilderParFil();
 
     /**
      * Constructeur privé pour forcer l'utilisation du builder.
@@ -41,23 +64,23 @@ public class Sommet {
     private Sommet(int i, int surcout, Set<Integer> joueurs, int nbPointsVictoire) {
         this.i = i;
         this.surcout = surcout;
-        this.joueurs = joueurs;
+        this.joueurs = new EnsembleSignale<>(joueurs);
         this.nbPointsVictoire = nbPointsVictoire;
-        this.voisins = new HashSet<>();
+        this.voisins = new EnsembleSignale<>(new HashSet<>());
     }
 
 
     public Sommet(Tuile tuile, Jeu jeu) {
-        i = jeu.getTuiles().indexOf(tuile);
+        i = jeu.getNumeroTuile(tuile);
         surcout = tuile.getSurcout();
-        joueurs = new HashSet<>();
+        joueurs = new EnsembleSignale<>(new HashSet<>());
         for (int j = 0; j < jeu.getJoueurs().size() ; j++) {
             if (tuile.hasRail(jeu.getJoueurs().get(j))) {
                 joueurs.add(j);
             }
         }
         nbPointsVictoire = tuile.getNbPointsVictoire();
-        voisins = new HashSet<>();
+        voisins = new EnsembleSignale<>(new HashSet<>());
     }
 
     /**
@@ -68,8 +91,16 @@ public class Sommet {
         this.i = s.i;
         this.surcout = s.surcout;
         this.nbPointsVictoire = s.nbPointsVictoire;
-        this.joueurs = new HashSet<>(s.joueurs);
-        this.voisins = new HashSet<>(s.voisins);
+        this.joueurs = new EnsembleSignale<>(new HashSet<>(s.joueurs));
+        this.voisins = new EnsembleSignale<>(new HashSet<>(s.voisins));
+    }
+
+    /**
+     * @return un nouveau sommet de numéro {@code i}, sans surcout, sans points de victoire et sans joueur
+     * (utilisable depuis plusieurs fils à la fois)
+     */
+    public static Sommet creerSommet(int i) {
+        return new Sommet(i, 0, new HashSet<>(), 0);
     }
 
     public int getIndice() {
@@ -96,6 +127,19 @@ public class Sommet {
         return voisins;
     }
 
+    /**
+     * Remplace les données du sommet. Le sommet garde son numéro, ses voisins et son identité : les graphes qui le
+     * contiennent et les appelants qui le référencent voient les nouvelles données, et leurs valeurs mémorisées sont
+     * invalidées.
+     */
+    public void modifierDonnees(int surcout, int nbPointsVictoire, Set<Integer> joueurs) {
+        this.surcout = surcout;
+        this.nbPointsVictoire = nbPointsVictoire;
+        this.joueurs.clear();
+        this.joueurs.addAll(joueurs);
+        signalerModification();
+    }
+
     public void ajouterVoisin(Sommet voisin) {
         if (voisin!=null) {
             voisins.add(voisin);
@@ -106,6 +150,56 @@ public class Sommet {
        return voisins.contains(sommet);
     }
 
+    /**
+     * Enregistre le compteur de modifications d'un graphe dont ce sommet devient un sommet
+     */
+    void ajouterGraphe(Graphe.Compteur compteur) {
+        if (graphes == null) {
+            graphes = new ArrayList<>(1);
+        } else if (graphes.size() >= seuilNettoyage) {
+            retirerCompteur(null);
+            seuilNettoyage = Math.max(8, 2 * graphes.size());
+        }
+        graphes.add(new WeakReference<>(compteur));
+    }
+
+    /**
+     * Oublie le compteur de modifications d'un graphe dont ce sommet n'est plus un sommet
+     */
+    void retirerGraphe(Graphe.Compteur compteur) {
+        if (graphes != null) {
+            retirerCompteur(compteur);
+        }
+    }
+
+    /**
+     * Retire de {@code graphes} le compteur donné (s'il n'est pas null) ainsi que les compteurs récupérés par le
+     * ramasse-miettes
+     */
+    private void retirerCompteur(Graphe.Compteur compteur) {
+        graphes.removeIf(reference -> {
+            Graphe.Compteur c = reference.get();
+            return c == null || c == compteur;
+        });
+    }
+
+    private void signalerModification() {
+        if (graphes != null) {
+            boolean perdu = false;
+            for (WeakReference<Graphe.Compteur> reference : graphes) {
+                Graphe.Compteur compteur = reference.get();
+                if (compteur == null) {
+                    perdu = true;
+                } else {
+                    compteur.incrementer();
+                }
+            }
+            if (perdu) {
+                retirerCompteur(null);
+            }
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -144,8 +238,48 @@ public class Sommet {
             return this;
         }
 
+        /**
+         * @return un nouveau sommet avec les valeurs fixées, qui a sa propre copie de l'ensemble des joueurs
+         * (le même builder peut donc créer plusieurs sommets sans qu'ils partagent cet ensemble)
+         */
         public Sommet createSommet() {
-            return new Sommet(i, surcout, joueurs, nbPointsVictoire);
+            return new Sommet(i, surcout, new HashSet<>(joueurs), nbPointsVictoire);
+        }
+    }
+
+    /**
+     * Builder dont l'état est rangé dans un builder propre à chaque fil (voir {@link #sommetBuilder})
+     */
+    private static class SommetBuilderParFil extends SommetBuilder {
+        private final ThreadLocal<SommetBuilder> builders = ThreadLocal.withInitial(SommetBuilder::new);
+
+        @Override
+        public SommetBuilder setIndice(int i) {
+            builders.get().setIndice(i);
+            return this;
+        }
+
+        @Override
+        public SommetBuilder setJoueurs(Set<Integer> joueurs) {
+            builders.get().setJoueurs(joueurs);
+            return this;
+        }
+
+        @Override
+        public SommetBuilder setSurcout(int surcout) {
+            builders.get().setSurcout(surcout);
+            return this;
+        }
+
+        @Override
+        public SommetBuilder setNbPointsVictoire(int nbPointsVictoire) {
+            builders.get().setNbPointsVictoire(nbPointsVictoire);
+            return this;
+        }
+
+        @Override
+        public Sommet createSommet() {
+            return builders.get().createSommet();
         }
     }
 
@@ -161,4 +295,75 @@ public class Sommet {
         }
         return false;
     }
+
+    /**
+     * Ensemble (des voisins ou des joueurs) qui signale chacune de ses modifications en incrémentant les compteurs
+     * des graphes contenant le sommet. Aucun état n'est partagé entre graphes : modifier les voisins d'un sommet d'un
+     * graphe ne touche ni aux compteurs ni aux valeurs mémorisées des autres graphes, même depuis un autre fil.
+     */
+    private class EnsembleSignale<E> extends AbstractSet<E> {
+        private final Set<E> elements;
+
+        EnsembleSignale(Set<E> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            Iterator<E> it = elements.iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public E next() {
+                    return it.next();
+                }
+
+                @Override
+                public void remove() {
+                    it.remove();
+                    signalerModification();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return elements.contains(o);
+        }
+
+        @Override
+        public boolean add(E e) {
+            boolean ajoute = elements.add(e);
+            if (ajoute) {
+                signalerModification();
+            }
+            return ajoute;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            boolean retire = elements.remove(o);
+            if (retire) {
+                signalerModification();
+            }
+            return retire;
+        }
+
+        @Override
+        public void clear() {
+            if (!elements.isEmpty()) {
+                elements.clear();
+                signalerModification();
+            }
+        }
+    }
 }
@@ -0,0 +1,299 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.*;
+
+/**
+ * Variante compacte de {@link Sommet} : l'ensemble des joueurs est codé par un masque de bits
+ * (le bit {@code j} correspond au joueur {@code j}, 64 joueurs au plus) et les voisins sont désignés
+ * par leurs numéros, rangés dans un tableau trié.
+ * Les accesseurs de {@code Sommet} sont conservés sous forme d'adaptateurs ({@link #getJoueurs()},
+ * {@link #getVoisins()}) qui lisent et modifient directement la représentation compacte.
+ */
+public class SommetCompact {
+    private static final int[] AUCUN_VOISIN = new int[0];
+
+    /**
+     * Numéro du sommet.
+     */
+    private final int i;
+    /**
+     * Coût de pose d'un rail sur la tuile correspondante.
+     */
+    private final int surcout;
+    /**
+     * Nombre de points de victoire que rapporte la tuile si un joueur a un rail dessus
+     */
+    private final int nbPointsVictoire;
+    /**
+     * Masque des joueurs ayant un rail sur la tuile.
+     */
+    private long joueurs;
+    /**
+     * Numéros des voisins, triés par ordre croissant (seules les cases 0..nbVoisins-1 sont utilisées).
+     */
+    private int[] voisins;
+    private int nbVoisins;
+
+    public SommetCompact(int i, int surcout, int nbPointsVictoire, long joueurs) {
+        this.i = i;
+        this.surcout = surcout;
+        this.nbPointsVictoire = nbPointsVictoire;
+        this.joueurs = joueurs;
+        this.voisins = AUCUN_VOISIN;
+    }
+
+    /**
+     * Construit la version compacte d'un sommet (avec les numéros de tous ses voisins).
+     * Les joueurs qui ne sont pas des entiers entre 0 et 63 sont ignorés.
+     */
+    public SommetCompact(Sommet s) {
+        this(s.getIndice(), s.getSurcout(), s.getNbPointsVictoire(), 0);
+        for (Integer j : s.getJoueurs()) {
+            if (j != null && j >= 0 && j < Long.SIZE) {
+                joueurs |= 1L << j;
+            }
+        }
+        voisins = new int[s.getVoisins().size()];
+        for (Sommet v : s.getVoisins()) {
+            voisins[nbVoisins++] = v.getIndice();
+        }
+        Arrays.sort(voisins);
+    }
+
+    public int getIndice() {
+        return i;
+    }
+
+    public int getSurcout() {
+        return surcout;
+    }
+
+    public int getNbPointsVictoire() {
+        return nbPointsVictoire;
+    }
+
+    public long getMasqueJoueurs() {
+        return joueurs;
+    }
+
+    public boolean aRail(int joueur) {
+        return joueur >= 0 && joueur < Long.SIZE && (joueurs & (1L << joueur)) != 0;
+    }
+
+    /**
+     * @return l'ensemble des joueurs ayant un rail sur la tuile, sous forme d'une vue modifiable sur le masque
+     */
+    public Set<Integer> getJoueurs() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                return new Iterator<>() {
+                    private long restants = joueurs;
+                    private int dernier = -1;
+
+                    @Override
+                    public boolean hasNext() {
+                        return restants != 0;
+                    }
+
+                    @Override
+                    public Integer next() {
+                        if (restants == 0) {
+                            throw new NoSuchElementException();
+                        }
+                        dernier = Long.numberOfTrailingZeros(restants);
+                        restants &= restants - 1;
+                        return dernier;
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (dernier < 0) {
+                            throw new IllegalStateException();
+                        }
+                        joueurs &= ~(1L << dernier);
+                        dernier = -1;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return Long.bitCount(joueurs);
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Integer j && aRail(j);
+            }
+
+            @Override
+            public boolean add(Integer j) {
+                if (j == null || j < 0 || j >= Long.SIZE) {
+                    throw new IllegalArgumentException("Numéro de joueur invalide : " + j);
+                }
+                boolean ajoute = !aRail(j);
+                joueurs |= 1L << j;
+                return ajoute;
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                boolean retire = contains(o);
+                if (retire) {
+                    joueurs &= ~(1L << (Integer) o);
+                }
+                return retire;
+            }
+        };
+    }
+
+    public int degre() {
+        return nbVoisins;
+    }
+
+    /**
+     * @return le numéro du k-ième voisin (dans l'ordre croissant)
+     */
+    public int getNumeroVoisin(int k) {
+        return voisins[k];
+    }
+
+    public boolean estVoisin(int numero) {
+        return Arrays.binarySearch(voisins, 0, nbVoisins, numero) >= 0;
+    }
+
+    public boolean estVoisin(SommetCompact sommet) {
+        return sommet != null && estVoisin(sommet.i);
+    }
+
+    /**
+     * Ajoute un voisin en conservant le tableau trié
+     *
+     * @return true si le voisin a été ajouté, false s'il était déjà présent
+     */
+    public boolean ajouterVoisin(int numero) {
+        int k = Arrays.binarySearch(voisins, 0, nbVoisins, numero);
+        if (k >= 0) {
+            return false;
+        }
+        k = -k - 1;
+        if (nbVoisins == voisins.length) {
+            voisins = Arrays.copyOf(voisins, Math.max(4, 2 * nbVoisins));
+        }
+        System.arraycopy(voisins, k, voisins, k + 1, nbVoisins - k);
+        voisins[k] = numero;
+        nbVoisins++;
+        return true;
+    }
+
+    public void ajouterVoisin(SommetCompact voisin) {
+        if (voisin != null) {
+            ajouterVoisin(voisin.i);
+        }
+    }
+
+    /**
+     * @return true si le voisin a été retiré, false s'il n'était pas présent
+     */
+    public boolean supprimerVoisin(int numero) {
+        int k = Arrays.binarySearch(voisins, 0, nbVoisins, numero);
+        if (k < 0) {
+            return false;
+        }
+        System.arraycopy(voisins, k + 1, voisins, k, nbVoisins - k - 1);
+        nbVoisins--;
+        return true;
+    }
+
+    /**
+     * @return l'ensemble des numéros des voisins, sous forme d'une vue modifiable sur le tableau trié
+     */
+    public Set<Integer> getVoisins() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                return new Iterator<>() {
+                    private int k = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return k < nbVoisins;
+                    }
+
+                    @Override
+                    public Integer next() {
+                        if (k >= nbVoisins) {
+                            throw new NoSuchElementException();
+                        }
+                        return voisins[k++];
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (k == 0) {
+                            throw new IllegalStateException();
+                        }
+                        supprimerVoisin(voisins[--k]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return nbVoisins;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Integer v && estVoisin(v);
+            }
+
+            @Override
+            public boolean add(Integer v) {
+                return ajouterVoisin(v);
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                return o instanceof Integer v && supprimerVoisin(v);
+            }
+        };
+    }
+
+    /**
+     * @return un nouveau sommet (sans voisins) ayant les mêmes données que this
+     */
+    public Sommet versSommet() {
+        return new Sommet.SommetBuilder().setIndice(i).setSurcout(surcout).setNbPointsVictoire(nbPointsVictoire)
+                .setJoueurs(new HashSet<>(getJoueurs())).createSommet();
+    }
+
+    /**
+     * @return le graphe formé par les sommets donnés, les voisins absents de la collection étant ignorés
+     */
+    public static Graphe versGraphe(Collection<SommetCompact> sommetsCompacts) {
+        Graphe g = new Graphe();
+        for (SommetCompact s : sommetsCompacts) {
+            g.ajouterSommet(s.versSommet());
+        }
+        for (SommetCompact s : sommetsCompacts) {
+            for (int k = 0; k < s.nbVoisins; k++) {
+                g.ajouterArete(g.getSommet(s.i), g.getSommet(s.voisins[k]));
+            }
+        }
+        return g;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SommetCompact sommet)) return false;
+        return i == sommet.i;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(i);
+    }
+}
@@ -0,0 +1,131 @@
+package fr.umontpellier.iut.graphes;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Tas binaire minimum indexé sur les éléments 0..n-1, chaque élément présent ayant une clé entière.
+ * Comme la place de chaque élément dans le tas est mémorisée, on peut diminuer la clé d'un élément déjà présent
+ * (au lieu d'insérer un doublon) : insertion, diminution de clé et extraction du minimum se font en O(log n),
+ * le test d'appartenance en O(1). À clé égale, le plus petit élément est extrait le premier.
+ */
+public class TasIndexe {
+    /**
+     * Éléments rangés en tas (seules les cases 0..taille-1 sont utilisées)
+     */
+    private final int[] tas;
+    /**
+     * Place de chaque élément dans {@code tas}, -1 s'il est absent
+     */
+    private final int[] places;
+    private final int[] cles;
+    private int taille;
+
+    public TasIndexe(int n) {
+        tas = new int[n];
+        places = new int[n];
+        cles = new int[n];
+        Arrays.fill(places, -1);
+    }
+
+    public boolean estVide() {
+        return taille == 0;
+    }
+
+    public int getTaille() {
+        return taille;
+    }
+
+    public boolean contient(int x) {
+        return places[x] >= 0;
+    }
+
+    /**
+     * @return la clé de {@code x} (pré-requis : {@code x} est dans le tas)
+     */
+    public int getCle(int x) {
+        return cles[x];
+    }
+
+    /**
+     * Insère {@code x} avec la clé {@code cle}, ou diminue sa clé s'il est déjà présent avec une clé plus grande
+     *
+     * @return true si le tas a été modifié
+     */
+    public boolean insererOuDiminuer(int x, int cle) {
+        if (places[x] < 0) {
+            places[x] = taille;
+            tas[taille++] = x;
+        } else if (cle >= cles[x]) {
+            return false;
+        }
+        cles[x] = cle;
+        monter(places[x]);
+        return true;
+    }
+
+    /**
+     * @return l'élément de plus petite clé, sans le retirer
+     */
+    public int getMin() {
+        if (taille == 0) {
+            throw new NoSuchElementException();
+        }
+        return tas[0];
+    }
+
+    /**
+     * Retire et renvoie l'élément de plus petite clé
+     */
+    public int extraireMin() {
+        int min = getMin();
+        places[min] = -1;
+        taille--;
+        if (taille > 0) {
+            tas[0] = tas[taille];
+            places[tas[0]] = 0;
+            descendre(0);
+        }
+        return min;
+    }
+
+    private void monter(int i) {
+        int x = tas[i];
+        while (i > 0) {
+            int pere = (i - 1) / 2;
+            if (!avant(x, tas[pere])) {
+                break;
+            }
+            tas[i] = tas[pere];
+            places[tas[i]] = i;
+            i = pere;
+        }
+        tas[i] = x;
+        places[x] = i;
+    }
+
+    private void descendre(int i) {
+        int x = tas[i];
+        while (2 * i + 1 < taille) {
+            int f = 2 * i + 1;
+            if (f + 1 < taille && avant(tas[f + 1], tas[f])) {
+                f++;
+            }
+            if (!avant(tas[f], x)) {
+                break;
+            }
+            tas[i] = tas[f];
+            places[tas[i]] = i;
+            i = f;
+        }
+        tas[i] = x;
+        places[x] = i;
+    }
+
+    /**
+     * @return true si {@code x} doit sortir du tas avant {@code y}
+     */
+    private boolean avant(int x, int y) {
+        return cles[x] < cles[y] || cles[x] == cles[y] && x < y;
+    }
+}
@@ -3,15 +3,23 @@ package fr.umontpellier.iut.trains;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import fr.umontpellier.iut.graphes.ArbreCoupes;
 import fr.umontpellier.iut.graphes.Graphe;
+import fr.umontpellier.iut.graphes.GrapheCSR;
+import fr.umontpellier.iut.graphes.GrapheFige;
+import fr.umontpellier.iut.graphes.MatriceDistances;
 import fr.umontpellier.iut.graphes.Sommet;
+import fr.umontpellier.iut.graphes.SommetCompact;
 import fr.umontpellier.iut.trains.cartes.Carte;
 import fr.umontpellier.iut.trains.cartes.FabriqueListeDeCartes;
 import fr.umontpellier.iut.trains.cartes.ListeDeCartes;
+import fr.umontpellier.iut.trains.plateau.ObservateurTuile;
 import fr.umontpellier.iut.trains.plateau.Plateau;
 import fr.umontpellier.iut.trains.plateau.Tuile;
+import fr.umontpellier.iut.trains.plateau.TuileEtoile;
+import fr.umontpellier.iut.trains.plateau.TuileVille;
 
-public class Jeu implements Runnable {
+public class Jeu implements Runnable, ObservateurTuile {
     /**
      * Liste des joueurs
      */
@@ -60,6 +68,33 @@ public class Jeu implements Runnable {
      * Liste des boutons à afficher dans l'interface
      */
     private List<Bouton> boutons;
+    /**
+     * Distances entre toutes les tuiles du plateau (calculées à la première demande, puis réparées à chaque
+     * changement de surcoût d'une tuile)
+     */
+    private MatriceDistances matriceDistances;
+    /**
+     * Dernier instantané publié du graphe du plateau (créé par le fil du jeu avec la liste des tuiles, puis remplacé
+     * après chaque action qui modifie une tuile)
+     */
+    private volatile GrapheFige grapheFige;
+    /**
+     * Graphe des tuiles du plateau (créé à la première demande, puis mis à jour en place à chaque modification
+     * d'une tuile, chaque sommet gardant son identité). Il n'est jamais donné aux appelants, qui en reçoivent une
+     * vue en lecture seule.
+     */
+    private Graphe graphe;
+    /**
+     * Graphe du réseau de chaque joueur (créé à la première demande, puis mis à jour en place comme {@code graphe})
+     */
+    private final Map<Joueur, Graphe> graphesJoueurs = new HashMap<>();
+    /**
+     * Liste des tuiles dont le jeu est l'observateur, et numéro de chacune de ces tuiles. Les données calculées à
+     * partir des tuiles (graphes, instantané, table des distances) sont abandonnées si la liste des tuiles est
+     * remplacée.
+     */
+    private List<Tuile> tuilesObservees;
+    private Map<Tuile, Integer> numerosTuiles;
 
     /**
      * Constructeur de la classe Jeu
@@ -106,6 +141,8 @@ public class Jeu implements Runnable {
             this.joueurs.add(new Joueur(this, nomJoueur, couleurs.remove(0)));
         }
         this.joueurCourant = joueurs.get(0);
+        // le premier instantané a besoin des joueurs (masques des rails)
+        observerTuiles();
     }
 
     public Map<String, ListeDeCartes> getReserve() {
@@ -124,6 +161,16 @@ public class Jeu implements Runnable {
         return tuiles.get(index);
     }
 
+    /**
+     * @return le numéro de la tuile sur le plateau (sa position dans {@link #getTuiles()}), ou -1 si elle n'est pas
+     *         sur le plateau, en temps constant
+     */
+    public int getNumeroTuile(Tuile tuile) {
+        observerTuiles();
+        Integer i = numerosTuiles.get(tuile);
+        return i == null ? -1 : i;
+    }
+
     /**
      * Renvoie un ensemble de tous les noms des cartes en jeu.
      * 
@@ -378,6 +425,130 @@ public class Jeu implements Runnable {
         nbJetonsGare--;
     }
 
+    /**
+     * @return la table des distances entre toutes les tuiles du plateau (sans les tuiles Mer), indexées par leur
+     *         numéro ; la table est calculée une seule fois par partie puis tenue à jour
+     */
+    public MatriceDistances getMatriceDistances() {
+        observerTuiles();
+        if (matriceDistances == null) {
+            matriceDistances = new MatriceDistances(new GrapheCSR(this));
+        }
+        return matriceDistances;
+    }
+
+    /**
+     * Devient l'observateur des tuiles du plateau et les numérote, si ce n'est pas déjà fait pour la liste de
+     * tuiles courante (elle peut avoir été remplacée, auquel cas les données calculées à partir des anciennes tuiles
+     * sont abandonnées), puis publie le premier instantané de ces tuiles. Appelée seulement par le fil du jeu.
+     */
+    private void observerTuiles() {
+        if (tuilesObservees == tuiles) {
+            return;
+        }
+        numerosTuiles = new IdentityHashMap<>();
+        for (int i = 0; i < tuiles.size(); i++) {
+            numerosTuiles.put(tuiles.get(i), i);
+            tuiles.get(i).setObservateur(this);
+        }
+        tuilesObservees = tuiles;
+        matriceDistances = null;
+        graphe = null;
+        graphesJoueurs.clear();
+        grapheFige = new GrapheFige(new GrapheCSR(this));
+    }
+
+    /**
+     * Appelée par une tuile après la pose d'un rail ou d'une gare : répercute ses nouvelles données dans la table
+     * des distances, l'instantané et les graphes déjà calculés, en temps proportionnel au nombre de voisines de la
+     * tuile. Dans les graphes, le sommet de la tuile est modifié en place.
+     */
+    @Override
+    public void onTuileModifiee(Tuile tuile) {
+        Integer i = tuilesObservees == tuiles ? numerosTuiles.get(tuile) : null;
+        if (i == null || tuile.estMer()) {
+            return;
+        }
+        if (matriceDistances != null) {
+            matriceDistances.modifierSurcout(i, tuile.getSurcout());
+        }
+        grapheFige = grapheFige.modifier(i, tuile.getSurcout(), tuile.getNbPointsVictoire(), getMasqueJoueurs(tuile));
+        if (graphe != null) {
+            modifierSommet(graphe.getSommet(i), tuile);
+        }
+        for (Map.Entry<Joueur, Graphe> entree : graphesJoueurs.entrySet()) {
+            Graphe reseau = entree.getValue();
+            Sommet s = reseau.getSommet(i);
+            if (s != null) {
+                modifierSommet(s, tuile);
+            } else if (tuile.hasRail(entree.getKey())) {
+                // nouveau rail du joueur : la tuile rejoint son réseau
+                s = creerSommet(tuile, i);
+                reseau.ajouterSommet(s);
+                for (Tuile voisine : tuile.getVoisines()) {
+                    Sommet v = reseau.getSommet(numerosTuiles.get(voisine));
+                    if (v != null) {
+                        s.ajouterVoisin(v);
+                        v.ajouterVoisin(s);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return un nouveau sommet (sans voisins) ayant les données de la tuile de numéro {@code i}
+     */
+    private Sommet creerSommet(Tuile tuile, int i) {
+        return new Sommet.SommetBuilder().setIndice(i).setSurcout(tuile.getSurcout())
+                .setNbPointsVictoire(tuile.getNbPointsVictoire()).setJoueurs(getRangsJoueurs(tuile)).createSommet();
+    }
+
+    /**
+     * Donne au sommet {@code s} les données actuelles de la tuile
+     */
+    private void modifierSommet(Sommet s, Tuile tuile) {
+        s.modifierDonnees(tuile.getSurcout(), tuile.getNbPointsVictoire(), getRangsJoueurs(tuile));
+    }
+
+    /**
+     * @return les rangs (dans la liste des joueurs) des joueurs ayant un rail sur la tuile
+     */
+    private Set<Integer> getRangsJoueurs(Tuile tuile) {
+        Set<Integer> rangs = new HashSet<>();
+        for (int j = 0; j < joueurs.size(); j++) {
+            if (tuile.hasRail(joueurs.get(j))) {
+                rangs.add(j);
+            }
+        }
+        return rangs;
+    }
+
+    /**
+     * @return le masque des joueurs (par rang dans la liste des joueurs) ayant un rail sur la tuile
+     */
+    private int getMasqueJoueurs(Tuile tuile) {
+        int masque = 0;
+        for (int j = 0; j < joueurs.size(); j++) {
+            if (tuile.hasRail(joueurs.get(j))) {
+                masque |= 1 << j;
+            }
+        }
+        return masque;
+    }
+
+    /**
+     * @return le dernier instantané du graphe des tuiles du jeu (sans les tuiles Mer). Il est publié de façon
+     *         atomique après chaque pose de rail ou de gare : un lecteur (interface, robot, statistiques) obtient
+     *         toujours un état cohérent du plateau, qui ne changera plus, sans copie ni verrou. Les instantanés
+     *         successifs partagent leur topologie et les données des tuiles non modifiées. Le premier est créé
+     *         par le fil du jeu à la construction du jeu : cette méthode ne fait que lire le dernier instantané, et
+     *         peut être appelée depuis n'importe quel fil.
+     */
+    public GrapheFige getGrapheFige() {
+        return grapheFige;
+    }
+
     public Collection<String> getPositionsRailDisponibles(Joueur joueur) {
         Collection<String> positions = new HashSet<>();
         for (int i = 0; i < tuiles.size(); i++) {
@@ -393,48 +564,123 @@ public class Jeu implements Runnable {
     }
 
     /**
-     * @return le graphe des tuiles du jeu (sans les tuiles Mer)
+     * @return une vue en lecture seule (voir {@link Graphe#vueLectureSeule()}) du graphe des tuiles du jeu (sans les
+     *         tuiles Mer). Le jeu construit ce graphe une seule fois puis le tient à jour à chaque pose de rail ou de
+     *         gare : l'appel est en temps constant, et la vue suit les poses suivantes. Pour obtenir un graphe
+     *         modifiable, le recopier avec {@link Graphe#Graphe(Graphe, java.util.Set)} ; pour une lecture depuis un
+     *         autre fil, passer par {@link #getGrapheFige()}.
      */
     public Graphe getGraphe() {
-        HashMap<Tuile, Sommet> map = new HashMap<>();
-        for (Tuile tuile : getTuiles()) {
-            map.put(tuile, new Sommet(tuile, this));
-        }
-        Set<Sommet> sommets = new HashSet<>();
-        for (Tuile tuile : getTuiles()) {
-            if (!tuile.estMer()) {
-                for (Tuile voisin : tuile.getVoisines()){
-                    if (!voisin.estMer()) {
-                        map.get(tuile).ajouterVoisin(map.get(voisin));
+        observerTuiles();
+        if (graphe == null) {
+            graphe = construireGraphe(null);
+        }
+        return graphe.vueLectureSeule();
+    }
+
+    /**
+     * @param joueur
+     * @return une vue en lecture seule du sous-graphe des tuiles du jeu sur lesquelles le joueur a posé des
+     *         rails (tenu à jour par le jeu, comme celui de {@link #getGraphe()})
+     */
+    public Graphe getGraphe(Joueur joueur) {
+        observerTuiles();
+        return graphesJoueurs.computeIfAbsent(joueur, this::construireGraphe).vueLectureSeule();
+    }
+
+    /**
+     * @return le graphe des tuiles (sans les tuiles Mer) sur lesquelles le joueur a un rail, ou de toutes les tuiles
+     *         si {@code joueur} est null
+     */
+    private Graphe construireGraphe(Joueur joueur) {
+        Sommet[] sommets = new Sommet[tuiles.size()];
+        Graphe res = new Graphe();
+        for (int i = 0; i < tuiles.size(); i++) {
+            Tuile tuile = tuiles.get(i);
+            if (!tuile.estMer() && (joueur == null || tuile.hasRail(joueur))) {
+                sommets[i] = creerSommet(tuile, i);
+                res.ajouterSommet(sommets[i]);
+            }
+        }
+        for (int i = 0; i < tuiles.size(); i++) {
+            if (sommets[i] != null) {
+                for (Tuile voisine : tuiles.get(i).getVoisines()) {
+                    Sommet v = sommets[numerosTuiles.get(voisine)];
+                    if (v != null) {
+                        sommets[i].ajouterVoisin(v);
                     }
                 }
-                sommets.add(map.get(tuile));
             }
         }
-        return new Graphe(sommets);
+        return res;
     }
 
     /**
      * @param joueur
-     * @return le sous-graphe des tuiles du jeu sur lesquelles le joueur a posé des
-     *         rails
+     * @return les sommets, en version compacte, des tuiles du jeu sur lesquelles le joueur a posé des rails
+     *         (mêmes sommets et mêmes adjacences que {@code getGraphe(joueur)})
      */
-    public Graphe getGraphe(Joueur joueur) {
-        HashMap<Tuile, Sommet> map = new HashMap<>();
-        for (Tuile tuile : getTuiles()) {
-            map.put(tuile, new Sommet(tuile, this));
-        }
-        Set<Sommet> sommets = new HashSet<>();
-        for (Tuile tuile : getTuiles()) {
+    public List<SommetCompact> getSommetsCompacts(Joueur joueur) {
+        observerTuiles();
+        List<SommetCompact> sommets = new ArrayList<>();
+        for (int i = 0; i < tuiles.size(); i++) {
+            Tuile tuile = tuiles.get(i);
             if (!tuile.estMer() && tuile.hasRail(joueur)) {
-                for (Tuile voisin : tuile.getVoisines()){
+                long masque = 0;
+                for (int j = 0; j < joueurs.size(); j++) {
+                    if (tuile.hasRail(joueurs.get(j))) {
+                        masque |= 1L << j;
+                    }
+                }
+                SommetCompact sommet = new SommetCompact(i, tuile.getSurcout(), tuile.getNbPointsVictoire(), masque);
+                for (Tuile voisin : tuile.getVoisines()) {
                     if (!voisin.estMer() && voisin.hasRail(joueur)) {
-                        map.get(tuile).ajouterVoisin(map.get(voisin));
+                        sommet.ajouterVoisin(numerosTuiles.get(voisin));
                     }
                 }
-                sommets.add(map.get(tuile));
+                sommets.add(sommet);
+            }
+        }
+        return sommets;
+    }
+
+    /**
+     * @param joueur
+     * @return pour chaque tuile (par indice), le surcout total minimal pour l'atteindre depuis le réseau du joueur
+     *         (0 pour les tuiles où il a un rail, {@code Integer.MAX_VALUE} pour les tuiles Mer, les tuiles
+     *         inaccessibles et lorsque le joueur n'a aucun rail), calculé en un seul parcours
+     */
+    public int[] getDistancesDepuisReseau(Joueur joueur) {
+        GrapheCSR graphe = new GrapheCSR(this);
+        int[] departs = new int[tuiles.size()];
+        int nbDeparts = 0;
+        for (int i = 0; i < tuiles.size(); i++) {
+            if (!tuiles.get(i).estMer() && tuiles.get(i).hasRail(joueur)) {
+                departs[nbDeparts++] = i;
+            }
+        }
+        int[] distancesPositions = graphe.getDistances(Arrays.copyOf(departs, nbDeparts));
+        int[] distances = new int[tuiles.size()];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        for (int p = 0; p < distancesPositions.length; p++) {
+            distances[graphe.getIndice(p)] = distancesPositions[p];
+        }
+        return distances;
+    }
+
+    /**
+     * @return l'arbre des coupes du plateau (sans les tuiles Mer) dont les terminaux sont les tuiles Ville et Étoile :
+     *         il donne, pour tout couple de ces tuiles, le nombre minimum de liaisons entre tuiles à couper pour les
+     *         séparer
+     */
+    public ArbreCoupes getArbreCoupesVillesEtoiles() {
+        int[] terminaux = new int[tuiles.size()];
+        int nb = 0;
+        for (int i = 0; i < tuiles.size(); i++) {
+            if (tuiles.get(i) instanceof TuileVille || tuiles.get(i) instanceof TuileEtoile) {
+                terminaux[nb++] = i;
             }
         }
-        return new Graphe(sommets);
+        return new ArbreCoupes(new GrapheCSR(this), Arrays.copyOf(terminaux, nb));
     }
 }
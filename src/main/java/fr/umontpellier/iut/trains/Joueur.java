@@ -9,6 +9,7 @@ import java.util.Set;
 import java.util.StringJoiner;
 import java.util.stream.Collectors;
 
+import fr.umontpellier.iut.graphes.ConnexiteIncrementale;
 import fr.umontpellier.iut.trains.cartes.Carte;
 import fr.umontpellier.iut.trains.cartes.EffetTour;
 import fr.umontpellier.iut.trains.cartes.FabriqueListeDeCartes;
@@ -31,6 +32,10 @@ public class Joueur {
     private ListeDeCartes cartesRecues;
     private List<EffetTour> listeEffets;
     private CouleurJoueur couleur;
+    /**
+     * Composantes connexes du réseau de rails du joueur, mises à jour à chaque rail posé
+     */
+    private final ConnexiteIncrementale<Tuile> reseau = new ConnexiteIncrementale<>();
 
     public Joueur(Jeu jeu, String nom, CouleurJoueur couleur) {
         this.jeu = jeu;
@@ -64,6 +69,27 @@ public class Joueur {
         return jeu;
     }
 
+    public ConnexiteIncrementale<Tuile> getReseau() {
+        return reseau;
+    }
+
+    /**
+     * Appelée par la tuile lorsque le joueur y pose un nouveau rail : la tuile est reliée dans le réseau aux tuiles
+     * voisines sur lesquelles le joueur a déjà un rail (les tuiles mer sont ignorées, comme dans
+     * {@link Jeu#getGraphe(Joueur)}). Le jeu est prévenu ensuite par la tuile elle-même.
+     */
+    public void onRailAjoute(Tuile tuile) {
+        if (tuile.estMer()) {
+            return;
+        }
+        reseau.ajouter(tuile);
+        for (Tuile voisine : tuile.getVoisines()) {
+            if (!voisine.estMer() && voisine.hasRail(this)) {
+                reseau.relier(tuile, voisine);
+            }
+        }
+    }
+
     public boolean hasEffet(EffetTour effet) {
         return listeEffets.contains(effet);
     }
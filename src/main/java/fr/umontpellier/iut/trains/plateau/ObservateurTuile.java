@@ -0,0 +1,12 @@
+package fr.umontpellier.iut.trains.plateau;
+
+/**
+ * Objet prévenu à chaque modification d'une tuile (pose d'un rail ou d'une gare)
+ */
+@FunctionalInterface
+public interface ObservateurTuile {
+    /**
+     * Appelée après la modification de la tuile
+     */
+    void onTuileModifiee(Tuile tuile);
+}
@@ -6,6 +6,15 @@ import java.util.List;
 public enum Plateau {
     OSAKA, TOKYO;
 
+    /**
+     * Nombre de lignes de tuiles des plateaux
+     */
+    public static final int NB_LIGNES = 8;
+    /**
+     * Nombre de tuiles des lignes paires (les lignes impaires en ont une de moins)
+     */
+    public static final int LARGEUR = 10;
+
     public List<Tuile> makeTuiles() {
         return switch (this) {
             case OSAKA -> makeTuilesOsaka();
@@ -132,7 +141,7 @@ public enum Plateau {
     }
 
     private static void placerTuiles(Tuile[][] array) {
-        for (int i = 0; i < 8; i++) {
+        for (int i = 0; i < NB_LIGNES; i++) {
             for (int j = 0; j < array[i].length; j++) {
                 if (j + 1 < array[i].length) {  // voisine de droite
                     array[i][j].ajouterVoisine(array[i][j + 1]);
@@ -260,12 +269,58 @@ public enum Plateau {
     }
 
     public static String getCoordonnees(int i) {
-        int strip = i / 19;
-        int stripIndex = i % 19;
-        if (stripIndex < 10) {
-            return String.format("(%d, %d)", 2*strip, stripIndex);
-        } else {
-            return String.format("(%d, %d)", 2*strip + 1, stripIndex - 10);
-        }
+        return String.format("(%d, %d)", getLigne(i), getColonne(i));
+    }
+
+    /**
+     * @return la ligne de la tuile d'indice i (les lignes paires ont 10 tuiles, les lignes impaires 9)
+     */
+    public static int getLigne(int i) {
+        return getLigne(i, LARGEUR);
+    }
+
+    /**
+     * @return la ligne de la tuile d'indice i sur une grille dont les lignes paires ont {@code largeur} tuiles (et
+     *         les lignes impaires une de moins)
+     */
+    public static int getLigne(int i, int largeur) {
+        return 2 * (i / (2 * largeur - 1)) + (i % (2 * largeur - 1) < largeur ? 0 : 1);
+    }
+
+    /**
+     * @return la colonne de la tuile d'indice i dans sa ligne
+     */
+    public static int getColonne(int i) {
+        return getColonne(i, LARGEUR);
+    }
+
+    /**
+     * @return la colonne de la tuile d'indice i dans sa ligne, sur une grille dont les lignes paires ont
+     *         {@code largeur} tuiles
+     */
+    public static int getColonne(int i, int largeur) {
+        int k = i % (2 * largeur - 1);
+        return k < largeur ? k : k - largeur;
+    }
+
+    /**
+     * @return le nombre minimal de pas entre tuiles voisines pour aller de la tuile i à la tuile j sur la grille
+     *         hexagonale complète (sans tenir compte des tuiles Mer ni des voisinages supprimés)
+     */
+    public static int getDistanceHexagonale(int i, int j) {
+        return getDistanceHexagonale(i, j, LARGEUR);
+    }
+
+    /**
+     * @return comme {@link #getDistanceHexagonale(int, int)}, sur une grille dont les lignes paires ont
+     *         {@code largeur} tuiles
+     */
+    public static int getDistanceHexagonale(int i, int j, int largeur) {
+        // coordonnées axiales : les lignes impaires sont décalées d'une demi-tuile vers la droite
+        int li = getLigne(i, largeur);
+        int lj = getLigne(j, largeur);
+        int dr = lj - li;
+        int dq = (getColonne(j, largeur) - lj / 2) - (getColonne(i, largeur) - li / 2);
+        return (Math.abs(dq) + Math.abs(dr) + Math.abs(dq + dr)) / 2;
     }
 }
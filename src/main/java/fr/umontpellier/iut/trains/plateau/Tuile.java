@@ -8,6 +8,10 @@ import fr.umontpellier.iut.trains.cartes.EffetTour;
 public abstract class Tuile {
     private ArrayList<Tuile> voisines;
     private Set<Joueur> rails;
+    /**
+     * Objet prévenu des poses de rails et de gares sur la tuile (null s'il n'y en a pas)
+     */
+    private ObservateurTuile observateur;
 
     public Tuile() {
         this.voisines = new ArrayList<>();
@@ -25,7 +29,23 @@ public abstract class Tuile {
     }
 
     public void ajouterRail(Joueur joueur) {
-        rails.add(joueur);
+        if (rails.add(joueur)) {
+            joueur.onRailAjoute(this);
+            signalerModification();
+        }
+    }
+
+    public void setObservateur(ObservateurTuile observateur) {
+        this.observateur = observateur;
+    }
+
+    /**
+     * Prévient l'observateur de la tuile (s'il y en a un) que la tuile a été modifiée
+     */
+    protected void signalerModification() {
+        if (observateur != null) {
+            observateur.onTuileModifiee(this);
+        }
     }
 
     public void ajouterGare() {